@@ -0,0 +1,28 @@
+package com.phegondev.PhegonHotel.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers a stream that found {@code mvcAsyncExecutor} and its queue full with 503 and {@code Retry-After}, like
+ * {@link com.phegondev.PhegonHotel.security.PoolBackpressureFilter}, rather than a 500. The body stays empty since
+ * the client asked for NDJSON.
+ */
+@RestControllerAdvice
+public class AsyncRejectionAdvice {
+
+  @Value("${app.backpressure.retry-after-seconds:2}")
+  private long retryAfterSeconds = 2;
+
+  @ExceptionHandler(TaskRejectedException.class)
+  public ResponseEntity<Void> handleRejected(TaskRejectedException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+            .build();
+  }
+}
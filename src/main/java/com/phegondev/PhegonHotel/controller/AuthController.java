@@ -2,9 +2,11 @@ package com.phegondev.PhegonHotel.controller;
 
 
 import com.phegondev.PhegonHotel.dto.LoginRequest;
+import com.phegondev.PhegonHotel.dto.RefreshTokenRequest;
 import com.phegondev.PhegonHotel.dto.Response;
 import com.phegondev.PhegonHotel.entity.User;
 import com.phegondev.PhegonHotel.service.interfac.IUserService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +30,20 @@ public class AuthController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<Response> refresh(@Valid @RequestBody RefreshTokenRequest refreshTokenRequest) {
+        Response response = userService.refreshToken(refreshTokenRequest.getRefreshToken());
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Response> logout(@RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+                                           @RequestBody(required = false) RefreshTokenRequest refreshTokenRequest) {
+        String refreshToken = refreshTokenRequest != null ? refreshTokenRequest.getRefreshToken() : null;
+        Response response = userService.logout(authorizationHeader, refreshToken);
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @GetMapping("/hello")
     public ResponseEntity<String> hello() {
         return ResponseEntity.ok("Hello World");
@@ -0,0 +1,106 @@
+package com.phegondev.PhegonHotel.controller;
+
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.service.interfac.IRoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Non-blocking counterparts of the public {@link RoomController} reads. The servlet thread is handed back as soon
+ * as the call is queued on the bounded {@code roomReadScheduler}, so an open search costs Tomcat a connection, not
+ * a request thread. Room lists are streamed as NDJSON, one room per line. Writes stay on {@link RoomController}.
+ */
+@RestController
+@RequestMapping("/api/rx/rooms")
+public class ReactiveRoomController {
+
+  private static final String BUSY_MESSAGE = "The service is busy, please retry shortly";
+
+  @Autowired
+  private IRoomService roomService;
+  @Autowired
+  @Qualifier("roomReadScheduler")
+  private Scheduler roomReadScheduler;
+
+
+  @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<RoomDTO> getAllRooms() {
+    return roomList(roomService::getAllRooms);
+  }
+
+  @GetMapping("/types")
+  public Mono<List<String>> getRoomTypes() {
+    return offload(roomService::getAllRoomTypes)
+            .onErrorMap(RejectedExecutionException.class, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE));
+  }
+
+  @GetMapping("/room-by-id/{roomId}")
+  public Mono<ResponseEntity<Response>> getRoomById(@PathVariable Long roomId) {
+    return offload(() -> roomService.getRoomById(roomId))
+            .onErrorResume(RejectedExecutionException.class, e -> Mono.just(busyResponse()))
+            .map(response -> ResponseEntity.status(response.getStatusCode()).body(response));
+  }
+
+  @GetMapping(value = "/all-available-rooms", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<RoomDTO> getAvailableRooms() {
+    return roomList(roomService::getAllAvailableRooms);
+  }
+
+  @GetMapping(value = "/available-rooms-by-date-and-type", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public Flux<RoomDTO> getAvailableRoomsByDateAndType(
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+          @RequestParam(required = false) String roomType
+  ) {
+    if (checkInDate == null || roomType == null || roomType.isBlank() || checkOutDate == null) {
+      return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+              "Please provide values for all fields(checkInDate, roomType,checkOutDate)"));
+    }
+    return roomList(() -> roomService.getAvailableRoomsByDataAndType(checkInDate, checkOutDate, roomType));
+  }
+
+  // Keeps failures in the usual Response shape instead of handing them to the container's error page
+  @ExceptionHandler(ResponseStatusException.class)
+  public ResponseEntity<Response> handleStatus(ResponseStatusException e) {
+    Response response = new Response();
+    response.setStatusCode(e.getStatusCode().value());
+    response.setMessage(e.getReason());
+    return ResponseEntity.status(response.getStatusCode()).contentType(MediaType.APPLICATION_JSON).body(response);
+  }
+
+  // A failed lookup is raised before the first line is written, so it still reaches the client as a status code
+  private Flux<RoomDTO> roomList(Callable<Response> call) {
+    return offload(call)
+            .onErrorMap(RejectedExecutionException.class, e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE))
+            .flatMapMany(response -> response.getStatusCode() == 200
+                    ? Flux.fromIterable(response.getRoomList())
+                    : Flux.error(new ResponseStatusException(HttpStatus.valueOf(response.getStatusCode()), response.getMessage())));
+  }
+
+  private <T> Mono<T> offload(Callable<T> call) {
+    return Mono.fromCallable(call).subscribeOn(roomReadScheduler);
+  }
+
+  private static Response busyResponse() {
+    Response response = new Response();
+    response.setStatusCode(503);
+    response.setMessage(BUSY_MESSAGE);
+    return response;
+  }
+}
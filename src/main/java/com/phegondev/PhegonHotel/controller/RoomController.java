@@ -1,28 +1,65 @@
 package com.phegondev.PhegonHotel.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
 import com.phegondev.PhegonHotel.service.interfac.IBookingService;
 import com.phegondev.PhegonHotel.service.interfac.IRoomService;
+import com.phegondev.PhegonHotel.utils.NdjsonStreams;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/rooms")
 public class RoomController {
 
+  // What the Response model can be written as, in Spring MVC's converter order
+  private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+          MediaType.parseMediaType("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
   @Autowired
   private IRoomService roomService;
   @Autowired
   private IBookingService iBookingService;
+  @Autowired
+  private ObjectMapper objectMapper;
+  @Autowired
+  private RoomCatalogVersion roomCatalogVersion;
+  @Autowired
+  private RoomPhotoUploads roomPhotoUploads;
+
+  @Value("${app.http.cache.rooms-max-age-seconds:60}")
+  private long roomsMaxAgeSeconds = 60;
+  @Value("${app.http.cache.room-types-max-age-seconds:300}")
+  private long roomTypesMaxAgeSeconds = 300;
+  @Value("${app.rooms.photo-upload.subscribe-timeout-ms:60000}")
+  private long uploadSubscribeTimeoutMs = 60000;
 
 
   @PostMapping("/add")
@@ -41,24 +78,75 @@ public class RoomController {
       return ResponseEntity.status(response.getStatusCode()).body(response);
     }
     Response response = roomService.addNewRoom(photo, roomType, roomPrice, roomDescription);
+    return withUploadLocation(response);
+  }
+
+  // Upload progress is for the admin who submitted the photo, like the upload itself
+  @GetMapping("/uploads/{uploadId}")
+  @PreAuthorize("hasAuthority('ADMIN')")
+  public ResponseEntity<Response> getRoomUpload(@PathVariable String uploadId) {
+    Response response = roomService.getRoomUpload(uploadId);
     return ResponseEntity.status(response.getStatusCode()).body(response);
   }
 
+  // Accept: text/event-stream holds the request open and sends one "upload" event once the upload has finished
+  @GetMapping(value = "/uploads/{uploadId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasAuthority('ADMIN')")
+  public ResponseEntity<SseEmitter> followRoomUpload(@PathVariable String uploadId) {
+    return roomPhotoUploads.whenFinished(uploadId)
+            .map(finished -> {
+              SseEmitter emitter = new SseEmitter(uploadSubscribeTimeoutMs);
+              finished.thenAccept(upload -> {
+                try {
+                  emitter.send(SseEmitter.event().name("upload").data(upload, MediaType.APPLICATION_JSON));
+                  emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+                  // The client went away or the emitter timed out first
+                  emitter.completeWithError(e);
+                }
+              });
+              return ResponseEntity.ok(emitter);
+            })
+            .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
   @GetMapping("/all")
-  public ResponseEntity<Response> getAllRooms() {
-    Response response = roomService.getAllRooms();
-    return ResponseEntity.status(response.getStatusCode()).body(response);
+  public ResponseEntity<Response> getAllRooms(
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    return conditional(ifNoneMatch, accept, "rooms", publicFor(roomsMaxAgeSeconds), () -> {
+      Response response = roomService.getAllRooms();
+      return ResponseEntity.status(response.getStatusCode()).body(response);
+    });
+  }
+
+  // Accept: application/x-ndjson streams one room per line straight from the database. Admin only like the other
+  // exports: each open stream holds a connection and an async write thread until the client has read it all.
+  @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @PreAuthorize("hasAuthority('ADMIN')")
+  public ResponseEntity<StreamingResponseBody> streamAllRooms() {
+    return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(NdjsonStreams.<RoomDTO>of(objectMapper, roomService::streamAllRooms));
   }
 
   @GetMapping("/types")
-  public List<String> getRoomTypes() {
-    return roomService.getAllRoomTypes();
+  public ResponseEntity<List<String>> getRoomTypes(
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    return conditional(ifNoneMatch, accept, "room-types", publicFor(roomTypesMaxAgeSeconds),
+            () -> ResponseEntity.ok(roomService.getAllRoomTypes()));
   }
 
+  // Lists the room's bookings, so browsers may keep it but must revalidate, and shared caches may not keep it
   @GetMapping("/room-by-id/{roomId}")
-  public ResponseEntity<Response> getRoomById(@PathVariable Long roomId) {
-    Response response = roomService.getRoomById(roomId);
-    return ResponseEntity.status(response.getStatusCode()).body(response);
+  public ResponseEntity<Response> getRoomById(@PathVariable Long roomId,
+          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    return conditional(ifNoneMatch, accept, "room-" + roomId, CacheControl.noCache().cachePrivate(), () -> {
+      Response response = roomService.getRoomById(roomId);
+      return ResponseEntity.status(response.getStatusCode()).body(response);
+    });
   }
 
   @GetMapping("/all-available-rooms")
@@ -93,7 +181,7 @@ public class RoomController {
 
   ) {
     Response response = roomService.updateRoom(roomId, roomDescription, roomType, roomPrice, photo);
-    return ResponseEntity.status(response.getStatusCode()).body(response);
+    return withUploadLocation(response);
   }
 
   @DeleteMapping("/delete/{roomId}")
@@ -104,5 +192,71 @@ public class RoomController {
 
   }
 
+  // A 202 points at the upload it started, where it can be polled or followed
+  private static ResponseEntity<Response> withUploadLocation(Response response) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode());
+    if (response.getRoomUpload() != null) {
+      builder.location(ServletUriComponentsBuilder.fromCurrentContextPath()
+              .path("/api/rooms/uploads/{uploadId}")
+              .buildAndExpand(response.getRoomUpload().getUploadId())
+              .toUri());
+    }
+    return builder.body(response);
+  }
 
+  /**
+   * Answers a matching {@code If-None-Match} with 304 from the catalog version alone, before the service reads
+   * anything. Otherwise runs {@code read} and tags a successful answer with the ETag and {@code cacheControl};
+   * failures go out untagged.
+   * <p>
+   * The same URL is written as JSON, CBOR or Smile (and {@code /all} also as NDJSON) depending on {@code Accept},
+   * so every tagged answer varies on it and each format gets its own tag.
+   */
+  private <T> ResponseEntity<T> conditional(String ifNoneMatch, String accept, String resource,
+                                            CacheControl cacheControl, Supplier<ResponseEntity<T>> read) {
+    String etag = roomCatalogVersion.etag(resource + "." + representationFor(accept).getSubtype());
+    HttpHeaders headers = new HttpHeaders();
+    headers.setVary(List.of(HttpHeaders.ACCEPT));
+    if (ifNoneMatch != null && ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.compare(ETag.create(etag), false))) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).eTag(etag).cacheControl(cacheControl).build();
+    }
+    ResponseEntity<T> response = read.get();
+    if (!response.getStatusCode().is2xxSuccessful()) {
+      return response;
+    }
+    return ResponseEntity.status(response.getStatusCode())
+            .headers(headers)
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .body(response.getBody());
+  }
+
+  // The format Spring MVC will pick for this Accept: the most specific acceptable type, JSON first among equals
+  static MediaType representationFor(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return MediaType.APPLICATION_JSON;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+    } catch (InvalidMediaTypeException e) {
+      return MediaType.APPLICATION_JSON;
+    }
+    MimeTypeUtils.sortBySpecificity(accepted);
+    for (MediaType acceptable : accepted) {
+      if (acceptable.getQualityValue() == 0) {
+        continue;
+      }
+      for (MediaType representation : REPRESENTATIONS) {
+        if (acceptable.isCompatibleWith(representation)) {
+          return representation;
+        }
+      }
+    }
+    return MediaType.APPLICATION_JSON;
+  }
+
+  private static CacheControl publicFor(long maxAgeSeconds) {
+    return maxAgeSeconds > 0 ? CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic() : CacheControl.noCache();
+  }
 }
@@ -0,0 +1,63 @@
+package com.phegondev.PhegonHotel.controller;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.utils.SparseFieldsets;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@code ?fields=id,roomType,roomPrice} to any {@link Response} written as JSON: the DTOs inside keep only
+ * the named properties, while statusCode, message and the list names stay. Skipped properties are never read or
+ * rendered, which is where the CPU saving comes from.
+ * <p>
+ * The filter for each distinct field set is built once and reused. Field sets come from clients, so at most
+ * {@link #MAX_CACHED_FIELD_SETS} are kept; further ones are built per request.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+  static final String FIELDS_PARAMETER = "fields";
+  static final int MAX_CACHED_FIELD_SETS = 256;
+
+  private final Map<SortedSet<String>, FilterProvider> filters = new ConcurrentHashMap<>();
+
+  @Override
+  protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                         MethodParameter returnType, ServerHttpRequest request,
+                                         ServerHttpResponse response) {
+    if (!(bodyContainer.getValue() instanceof Response) || !(request instanceof ServletServerHttpRequest servletRequest)) {
+      return;
+    }
+    String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+    if (fields == null) {
+      return;
+    }
+    SortedSet<String> names = SparseFieldsets.parse(fields);
+    if (!names.isEmpty()) {
+      bodyContainer.setFilters(filtersFor(names));
+    }
+  }
+
+  FilterProvider filtersFor(SortedSet<String> fields) {
+    FilterProvider cached = filters.get(fields);
+    if (cached != null) {
+      return cached;
+    }
+    FilterProvider compiled = SparseFieldsets.onlyFields(fields);
+    if (filters.size() < MAX_CACHED_FIELD_SETS) {
+      filters.putIfAbsent(fields, compiled);
+    }
+    return compiled;
+  }
+}
@@ -1,14 +1,23 @@
 package com.phegondev.PhegonHotel.controller;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.UserDTO;
+import com.phegondev.PhegonHotel.service.interfac.IUserImportService;
 import com.phegondev.PhegonHotel.service.interfac.IUserService;
+import com.phegondev.PhegonHotel.utils.NdjsonStreams;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/users")
@@ -17,6 +26,10 @@ public class UserController {
 
     @Autowired
     private IUserService userService;
+    @Autowired
+    private IUserImportService userImportService;
+    @Autowired
+    private ObjectMapper objectMapper;
 
 
     @GetMapping("/all")
@@ -26,6 +39,22 @@ public class UserController {
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
+    // Accept: application/x-ndjson streams one user per line straight from the database
+    @GetMapping(value = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(NdjsonStreams.<UserDTO>of(objectMapper, userService::streamAllUsers));
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Response> importUsers(HttpServletRequest request) throws IOException {
+        Response response = userImportService.importUsers(request.getInputStream(), request.getContentType());
+        return ResponseEntity.status(response.getStatusCode()).body(response);
+    }
+
     @GetMapping("/get-by-id/{userId}")
     public ResponseEntity<Response> getUserById(@PathVariable("userId") String userId) {
         Response response = userService.getUserById(userId);
@@ -49,8 +78,12 @@ public class UserController {
     }
 
     @GetMapping("/get-user-bookings/{userId}")
-    public ResponseEntity<Response> getUserBookingHistory(@PathVariable("userId") String userId) {
-        Response response = userService.getUserBookingHistory(userId);
+    public ResponseEntity<Response> getUserBookingHistory(@PathVariable("userId") String userId,
+                                                          @RequestParam(required = false) Integer page,
+                                                          @RequestParam(required = false) Integer size) {
+        Response response = page == null && size == null
+                ? userService.getUserBookingHistory(userId)
+                : userService.getUserBookingHistory(userId, page, size);
         return ResponseEntity.status(response.getStatusCode()).body(response);
     }
 
@@ -0,0 +1,85 @@
+package com.phegondev.PhegonHotel.controller.v2;
+
+import com.phegondev.PhegonHotel.dto.v2.BookingConfirmation;
+import com.phegondev.PhegonHotel.dto.v2.BookingDetail;
+import com.phegondev.PhegonHotel.dto.v2.BookingRequest;
+import com.phegondev.PhegonHotel.service.BookingOutcome;
+import com.phegondev.PhegonHotel.service.interfac.IBookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+
+/**
+ * Bookings API in its v2 shape. Placing a booking returns 201 with the confirmation's location; an unknown room
+ * or guest is a 404 and dates that are taken, or still being taken by a concurrent request, are a 409.
+ */
+@RestController
+@RequestMapping("/api/v2/bookings")
+public class BookingV2Controller {
+
+    @Autowired
+    private IBookingService bookingService;
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('USER')")
+    public ResponseEntity<BookingConfirmation> createBooking(@RequestBody BookingRequest request) {
+        String invalid = validate(request);
+        if (invalid != null) {
+            return problem(HttpStatus.BAD_REQUEST, invalid);
+        }
+
+        BookingOutcome outcome = bookingService.createBooking(request);
+        return switch (outcome.status()) {
+            case BOOKED -> {
+                URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                        .path("/{confirmationCode}")
+                        .buildAndExpand(outcome.bookingConfirmationCode())
+                        .toUri();
+                yield ResponseEntity.created(location)
+                        .body(new BookingConfirmation(outcome.bookingConfirmationCode()));
+            }
+            case ROOM_NOT_FOUND, USER_NOT_FOUND -> problem(HttpStatus.NOT_FOUND, outcome.status().message());
+            case UNAVAILABLE, CONFLICT -> problem(HttpStatus.CONFLICT, outcome.status().message());
+        };
+    }
+
+    @GetMapping("/{confirmationCode}")
+    public ResponseEntity<BookingDetail> getBooking(@PathVariable String confirmationCode) {
+        return bookingService.findBookingDetail(confirmationCode)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> problem(HttpStatus.NOT_FOUND, "Booking Not Found"));
+    }
+
+    @DeleteMapping("/{bookingId}")
+    @PreAuthorize("hasAuthority('ADMIN') or hasAuthority('USER')")
+    public ResponseEntity<Void> cancelBooking(@PathVariable Long bookingId) {
+        if (!bookingService.deleteBooking(bookingId)) {
+            return problem(HttpStatus.NOT_FOUND, "Booking Does Not Exist");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static String validate(BookingRequest request) {
+        if (request.roomId() == null || request.userId() == null
+                || request.checkInDate() == null || request.checkOutDate() == null) {
+            return "roomId, userId, checkInDate and checkOutDate are required";
+        }
+        if (request.checkOutDate().isBefore(request.checkInDate())) {
+            return "checkOutDate must not be before checkInDate";
+        }
+        if (request.numOfAdults() < 1 || request.numOfChildren() < 0) {
+            return "A booking needs at least one adult and cannot have a negative number of children";
+        }
+        return null;
+    }
+
+    private static <T> ResponseEntity<T> problem(HttpStatus status, String detail) {
+        return ResponseEntity.of(ProblemDetail.forStatusAndDetail(status, detail)).build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.phegondev.PhegonHotel.controller.v2;
+
+import com.phegondev.PhegonHotel.dto.v2.RoomDetail;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
+import com.phegondev.PhegonHotel.service.interfac.IRoomService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Read side of the rooms API in its v2 shape: bodies are the records in {@code dto.v2}, sized to each endpoint,
+ * and errors are RFC 9457 problem details. {@code /api/rooms} is unchanged.
+ */
+@RestController
+@RequestMapping("/api/v2/rooms")
+public class RoomV2Controller {
+
+    @Autowired
+    private IRoomService roomService;
+
+    @GetMapping
+    public List<RoomView> getRooms() {
+        return roomService.getRoomViews();
+    }
+
+    @GetMapping("/types")
+    public List<String> getRoomTypes() {
+        return roomService.getAllRoomTypes();
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<List<RoomView>> getAvailableRooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @RequestParam(defaultValue = "") String roomType) {
+        if (checkOutDate.isBefore(checkInDate)) {
+            return ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST,
+                    "checkOutDate must not be before checkInDate")).build();
+        }
+        return ResponseEntity.ok(roomService.findAvailableRoomViews(checkInDate, checkOutDate, roomType));
+    }
+
+    @GetMapping("/{roomId}")
+    public ResponseEntity<RoomDetail> getRoom(@PathVariable Long roomId) {
+        return roomService.findRoomDetail(roomId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.of(
+                        ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND, "Room Not Found")).build());
+    }
+}
@@ -0,0 +1,12 @@
+package com.phegondev.PhegonHotel.controller.v2;
+
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Renders request errors Spring MVC raises before a v2 handler runs (missing or malformed parameters, unreadable
+ * bodies, unsupported media types) as problem details, matching the errors the v2 controllers return themselves.
+ */
+@RestControllerAdvice(basePackageClasses = V2ProblemDetailsAdvice.class)
+public class V2ProblemDetailsAdvice extends ResponseEntityExceptionHandler {
+}
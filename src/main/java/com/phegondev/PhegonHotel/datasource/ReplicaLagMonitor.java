@@ -0,0 +1,97 @@
+package com.phegondev.PhegonHotel.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides whether the replica may serve reads, based on a heartbeat row written to the primary.
+ * <p>
+ * Each check compares the newest heartbeat on the primary with the one that has replicated so far, then
+ * writes a fresh heartbeat. The difference is the replication lag as seen by this application, independent
+ * of clock skew between the database servers. The replica is used only while that lag is within
+ * {@code maxLagMs} and both reads succeed; until the first successful check, all reads stay on the primary.
+ * The {@code replica_heartbeat} table comes from the V5 migration and reaches the replica through replication.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = 1";
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = 1";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    // A lock rather than synchronized: the check blocks on JDBC, which would pin a virtual scheduler thread
+    private final ReentrantLock checkLock = new ReentrantLock();
+
+    private volatile boolean replicaAvailable;
+    private volatile long lagMs = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Lag in milliseconds measured by the last check, or -1 if it could not be measured.
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        checkLock.lock();
+        try {
+            checkLag();
+        } finally {
+            checkLock.unlock();
+        }
+    }
+
+    private void checkLag() {
+        boolean wasAvailable = replicaAvailable;
+        try {
+            Long primaryBeat = latestBeat(primary);
+            Long replicaBeat = latestBeat(replica);
+            lagMs = primaryBeat == null || replicaBeat == null ? -1 : Math.max(0, primaryBeat - replicaBeat);
+            replicaAvailable = lagMs >= 0 && lagMs <= maxLagMs;
+            beat(Math.max(System.currentTimeMillis(), primaryBeat == null ? 0 : primaryBeat + 1));
+        } catch (DataAccessException e) {
+            lagMs = -1;
+            replicaAvailable = false;
+            log.debug("Replica health check failed", e);
+        }
+
+        if (wasAvailable != replicaAvailable) {
+            if (replicaAvailable) {
+                log.info("Replica available (lag {} ms), routing read-only transactions to it", lagMs);
+            } else {
+                log.warn("Replica unavailable (lag {} ms, tolerance {} ms), routing all transactions to the primary", lagMs, maxLagMs);
+            }
+        }
+    }
+
+    private static Long latestBeat(JdbcTemplate jdbcTemplate) {
+        List<Long> beats = jdbcTemplate.queryForList(SELECT_BEAT, Long.class);
+        return beats.isEmpty() ? null : beats.get(0);
+    }
+
+    private void beat(long now) {
+        if (primary.update(UPDATE_BEAT, now) == 0) {
+            primary.update(INSERT_BEAT, now);
+        }
+    }
+}
@@ -3,10 +3,12 @@ package com.phegondev.PhegonHotel.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class BookingDTO {
 
@@ -19,4 +21,16 @@ public class BookingDTO {
     private String bookingConfirmationCode;
     private UserDTO user;
     private RoomDTO room;
+
+    // Used by JPQL constructor expressions, which select only the booking's own columns
+    public BookingDTO(Long id, LocalDate checkInDate, LocalDate checkOutDate, int numOfAdults, int numOfChildren,
+                      int totalNumOfGuest, String bookingConfirmationCode) {
+        this.id = id;
+        this.checkInDate = checkInDate;
+        this.checkOutDate = checkOutDate;
+        this.numOfAdults = numOfAdults;
+        this.numOfChildren = numOfChildren;
+        this.totalNumOfGuest = totalNumOfGuest;
+        this.bookingConfirmationCode = bookingConfirmationCode;
+    }
 }
@@ -14,6 +14,7 @@ public class Response {
     private String message;
 
     private String token;
+    private String refreshToken;
     private String role;
     private String expirationTime;
     private String bookingConfirmationCode;
@@ -24,6 +25,8 @@ public class Response {
     private List<UserDTO> userList;
     private List<RoomDTO> roomList;
     private List<BookingDTO> bookingList;
+    private List<UserImportResultDTO> importResults;
+    private RoomUploadDTO roomUpload;
 
 
 }
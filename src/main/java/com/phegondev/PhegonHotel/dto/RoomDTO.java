@@ -3,11 +3,13 @@ package com.phegondev.PhegonHotel.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class RoomDTO {
 
@@ -17,4 +19,13 @@ public class RoomDTO {
     private String roomPhotoUrl;
     private String roomDescription;
     private List<BookingDTO> bookings;
+
+    // Used by JPQL constructor expressions so room lists never materialize Room entities
+    public RoomDTO(Long id, String roomType, BigDecimal roomPrice, String roomPhotoUrl, String roomDescription) {
+        this.id = id;
+        this.roomType = roomType;
+        this.roomPrice = roomPrice;
+        this.roomPhotoUrl = roomPhotoUrl;
+        this.roomDescription = roomDescription;
+    }
 }
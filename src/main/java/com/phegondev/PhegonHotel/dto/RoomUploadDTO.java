@@ -0,0 +1,25 @@
+package com.phegondev.PhegonHotel.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomUploadDTO {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+    // A newer photo for the same room was submitted before this one finished, so this one was not applied
+    public static final String SUPERSEDED = "SUPERSEDED";
+    public static final String FAILED = "FAILED";
+
+    private String uploadId;
+    private String status;
+    private Long roomId;
+    private String roomPhotoUrl;
+    private String message;
+}
@@ -0,0 +1,36 @@
+package com.phegondev.PhegonHotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of the booking history, drawn from either bookings or bookings_archive. Booking and room columns are null
+ * for a user without bookings, hence the boxed numeric types.
+ */
+@Data
+@AllArgsConstructor
+public class UserBookingHistoryRow {
+
+    private Long userId;
+    private String userName;
+    private String userEmail;
+    private String userPhoneNumber;
+    private String userRole;
+
+    private Long bookingId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private Integer numOfAdults;
+    private Integer numOfChildren;
+    private Integer totalNumOfGuest;
+    private String bookingConfirmationCode;
+
+    private Long roomId;
+    private String roomType;
+    private BigDecimal roomPrice;
+    private String roomPhotoUrl;
+    private String roomDescription;
+}
@@ -2,11 +2,13 @@ package com.phegondev.PhegonHotel.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@NoArgsConstructor
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserDTO {
 
@@ -17,4 +19,12 @@ public class UserDTO {
     private String role;
     private List<BookingDTO> bookings = new ArrayList<>();
 
+    // Used by JPQL constructor expressions; the password column is never selected
+    public UserDTO(Long id, String email, String name, String phoneNumber, String role) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.role = role;
+    }
 }
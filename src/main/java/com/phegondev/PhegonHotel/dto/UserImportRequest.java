@@ -0,0 +1,15 @@
+package com.phegondev.PhegonHotel.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRequest {
+
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private String password;
+    private String role;
+}
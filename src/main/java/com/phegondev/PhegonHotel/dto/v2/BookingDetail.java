@@ -0,0 +1,4 @@
+package com.phegondev.PhegonHotel.dto.v2;
+
+public record BookingDetail(BookingView booking, RoomView room, GuestView guest) {
+}
@@ -0,0 +1,7 @@
+package com.phegondev.PhegonHotel.dto.v2;
+
+import java.time.LocalDate;
+
+public record BookingRequest(Long roomId, Long userId, LocalDate checkInDate, LocalDate checkOutDate,
+                             int numOfAdults, int numOfChildren) {
+}
@@ -0,0 +1,8 @@
+package com.phegondev.PhegonHotel.dto.v2;
+
+import java.time.LocalDate;
+
+// A booking's own columns, without room or guest; also the JPQL constructor target
+public record BookingView(Long id, LocalDate checkInDate, LocalDate checkOutDate, int numOfAdults, int numOfChildren,
+                          int totalNumOfGuest, String bookingConfirmationCode) {
+}
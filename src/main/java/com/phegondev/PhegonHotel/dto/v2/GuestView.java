@@ -0,0 +1,4 @@
+package com.phegondev.PhegonHotel.dto.v2;
+
+public record GuestView(Long id, String name, String email, String phoneNumber) {
+}
@@ -0,0 +1,6 @@
+package com.phegondev.PhegonHotel.dto.v2;
+
+import java.util.List;
+
+public record RoomDetail(RoomView room, List<BookingView> bookings) {
+}
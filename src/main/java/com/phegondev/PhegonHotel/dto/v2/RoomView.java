@@ -0,0 +1,7 @@
+package com.phegondev.PhegonHotel.dto.v2;
+
+import java.math.BigDecimal;
+
+// One room as listed by /api/v2/rooms; also the JPQL constructor target for those lists
+public record RoomView(Long id, String roomType, BigDecimal roomPrice, String roomPhotoUrl, String roomDescription) {
+}
@@ -16,7 +16,9 @@ import java.util.Date;
 public class Booking {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "booking_id")
+  @TableGenerator(name = "booking_id", table = "id_generators", pkColumnName = "sequence_name",
+          valueColumnName = "next_val", pkColumnValue = "bookings", allocationSize = 50)
   private Long id;
 
   @NotNull(message = "check in date is required")
@@ -33,9 +35,10 @@ public class Booking {
 
   private int totalNumOfGuest;
 
+  @Column(unique = true)
   private String bookingConfirmationCode;
 
-  @ManyToOne(fetch = FetchType.EAGER)
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id")
   private User user;
 
@@ -3,6 +3,9 @@ package com.phegondev.PhegonHotel.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -11,13 +14,22 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "rooms")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "rooms")
+// Updates write only the changed columns, so editing a room cannot overwrite a photo stored by RoomPhotoUploads
+@DynamicUpdate
 public class Room {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "room_id")
+    @TableGenerator(name = "room_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "rooms", allocationSize = 50)
     private Long id;
 
+    // Bumped by every booking of this room, see BookingService.saveBooking
+    @Version
+    private Long version;
+
     private String roomType;
     private BigDecimal roomPrice;
     private String roomPhotoUrl;
@@ -1,12 +1,17 @@
 package com.phegondev.PhegonHotel.entity;
 
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -14,10 +19,35 @@ import java.util.List;
 @Data
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+// Row mapping for the native booking history query in UserRepository
+@SqlResultSetMapping(name = "UserBookingHistoryRow", classes = @ConstructorResult(
+        targetClass = UserBookingHistoryRow.class,
+        columns = {
+                @ColumnResult(name = "user_id", type = Long.class),
+                @ColumnResult(name = "user_name", type = String.class),
+                @ColumnResult(name = "user_email", type = String.class),
+                @ColumnResult(name = "user_phone_number", type = String.class),
+                @ColumnResult(name = "user_role", type = String.class),
+                @ColumnResult(name = "booking_id", type = Long.class),
+                @ColumnResult(name = "check_in_date", type = LocalDate.class),
+                @ColumnResult(name = "check_out_date", type = LocalDate.class),
+                @ColumnResult(name = "num_of_adults", type = Integer.class),
+                @ColumnResult(name = "num_of_children", type = Integer.class),
+                @ColumnResult(name = "total_num_of_guest", type = Integer.class),
+                @ColumnResult(name = "booking_confirmation_code", type = String.class),
+                @ColumnResult(name = "room_id", type = Long.class),
+                @ColumnResult(name = "room_type", type = String.class),
+                @ColumnResult(name = "room_price", type = BigDecimal.class),
+                @ColumnResult(name = "room_photo_url", type = String.class),
+                @ColumnResult(name = "room_description", type = String.class)
+        }))
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id")
+    @TableGenerator(name = "user_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Email is required")
@@ -1,11 +1,50 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.phegondev.PhegonHotel.dto.BookingDTO;
+import com.phegondev.PhegonHotel.dto.v2.BookingView;
 import com.phegondev.PhegonHotel.entity.Booking;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    // The confirmation lookup is the one place that renders the guest, so fetch it together with the room
+    @EntityGraph(attributePaths = {"user", "room"})
     Optional<Booking> findByBookingConfirmationCode(String confirmationCode);
+
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.BookingDTO(b.id, b.checkInDate, b.checkOutDate, " +
+            "b.numOfAdults, b.numOfChildren, b.totalNumOfGuest, b.bookingConfirmationCode) " +
+            "FROM Booking b ORDER BY b.id DESC")
+    List<BookingDTO> findAllBookingDTOs();
+
+    // Same rows as findAllBookingDTOs, read through a cursor for the NDJSON export; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.BookingDTO(b.id, b.checkInDate, b.checkOutDate, " +
+            "b.numOfAdults, b.numOfChildren, b.totalNumOfGuest, b.bookingConfirmationCode) " +
+            "FROM Booking b ORDER BY b.id DESC")
+    Stream<BookingDTO> streamAllBookingDTOs();
+
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.v2.BookingView(b.id, b.checkInDate, b.checkOutDate, " +
+            "b.numOfAdults, b.numOfChildren, b.totalNumOfGuest, b.bookingConfirmationCode) " +
+            "FROM Booking b WHERE b.room.id = :roomId ORDER BY b.checkInDate")
+    List<BookingView> findBookingViewsByRoomId(Long roomId);
+
+    // Set-based deletes used before removing a room or guest, so their bookings are never loaded one by one.
+    // The persistence context is cleared afterwards so no managed copy of a deleted booking outlives the statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.room.id = :roomId")
+    int deleteAllByRoomIdInBulk(Long roomId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.user.id = :userId")
+    int deleteAllByUserIdInBulk(Long userId);
 }
@@ -1,23 +1,58 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
 import com.phegondev.PhegonHotel.entity.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RoomRepository extends JpaRepository<Room, Long> {
 
+    // Both results only change when a room is written, which invalidates them through the query cache timestamps
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT DISTINCT r.roomType FROM Room r")
     List<String> findDistinctRoomTypes();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.RoomDTO(r.id, r.roomType, r.roomPrice, r.roomPhotoUrl, r.roomDescription) " +
+            "FROM Room r ORDER BY r.id DESC")
+    List<RoomDTO> findAllRoomDTOs();
+
+    // Cursor over the same rows for the NDJSON export, bypassing the query cache; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.RoomDTO(r.id, r.roomType, r.roomPrice, r.roomPhotoUrl, r.roomDescription) " +
+            "FROM Room r ORDER BY r.id DESC")
+    Stream<RoomDTO> streamAllRoomDTOs();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.v2.RoomView(r.id, r.roomType, r.roomPrice, r.roomPhotoUrl, r.roomDescription) " +
+            "FROM Room r ORDER BY r.id DESC")
+    List<RoomView> findAllRoomViews();
+
 
     @Query("SELECT r FROM Room r WHERE r.roomType LIKE %:roomType% AND r.id NOT IN (SELECT bk.room.id FROM Booking bk WHERE" +
             "(bk.checkInDate <= :checkOutDate) AND (bk.checkOutDate >= :checkInDate))")
     List<Room> findAvailableRoomsByDatesAndTypes(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
 
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.v2.RoomView(r.id, r.roomType, r.roomPrice, r.roomPhotoUrl, r.roomDescription) " +
+            "FROM Room r WHERE r.roomType LIKE %:roomType% AND r.id NOT IN (SELECT bk.room.id FROM Booking bk WHERE " +
+            "(bk.checkInDate <= :checkOutDate) AND (bk.checkOutDate >= :checkInDate)) ORDER BY r.id DESC")
+    List<RoomView> findAvailableRoomViews(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
+
 
     @Query("SELECT r FROM Room r WHERE r.id NOT IN (SELECT b.room.id FROM Booking b)")
     List<Room> getAllAvailableRooms();
+
+    // Sets only the photo, leaving the version alone so a late upload does not collide with bookings of the room
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Room r SET r.roomPhotoUrl = :roomPhotoUrl WHERE r.id = :roomId")
+    int updateRoomPhotoUrl(Long roomId, String roomPhotoUrl);
 }
@@ -1,13 +1,53 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
+import com.phegondev.PhegonHotel.dto.UserDTO;
 import com.phegondev.PhegonHotel.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.UserDTO(u.id, u.email, u.name, u.phoneNumber, u.role) FROM User u")
+    List<UserDTO> findAllUserDTOs();
+
+    // Cursor for the NDJSON export, in primary key order so the scan needs no sort; consume inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.phegondev.PhegonHotel.dto.UserDTO(u.id, u.email, u.name, u.phoneNumber, u.role) FROM User u ORDER BY u.id")
+    Stream<UserDTO> streamAllUserDTOs();
+
+    // Reads both the hot bookings table and bookings_archive, which has no entity, hence native SQL. The first
+    // branch keeps the single booking-less row for a user who has no bookings in either table.
+    @NativeQuery(sqlResultSetMapping = "UserBookingHistoryRow", value =
+            "SELECT u.id AS user_id, u.name AS user_name, u.email AS user_email, u.phone_number AS user_phone_number, u.role AS user_role, " +
+            "b.id AS booking_id, b.check_in_date, b.check_out_date, b.num_of_adults, b.num_of_children, b.total_num_of_guest, b.booking_confirmation_code, " +
+            "r.id AS room_id, r.room_type, r.room_price, r.room_photo_url, r.room_description " +
+            "FROM users u LEFT JOIN bookings b ON b.user_id = u.id LEFT JOIN rooms r ON r.id = b.room_id " +
+            "WHERE u.id = :userId AND (b.id IS NOT NULL OR NOT EXISTS (SELECT 1 FROM bookings_archive ba WHERE ba.user_id = u.id)) " +
+            "UNION ALL " +
+            "SELECT u.id, u.name, u.email, u.phone_number, u.role, " +
+            "a.id, a.check_in_date, a.check_out_date, a.num_of_adults, a.num_of_children, a.total_num_of_guest, a.booking_confirmation_code, " +
+            "r.id, r.room_type, r.room_price, r.room_photo_url, r.room_description " +
+            "FROM users u JOIN bookings_archive a ON a.user_id = u.id LEFT JOIN rooms r ON r.id = a.room_id " +
+            "WHERE u.id = :userId " +
+            "ORDER BY check_in_date DESC, booking_id DESC")
+    Slice<UserBookingHistoryRow> findBookingHistory(Long userId, Pageable pageable);
 }
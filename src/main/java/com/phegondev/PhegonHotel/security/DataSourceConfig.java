@@ -0,0 +1,79 @@
+package com.phegondev.PhegonHotel.security;
+
+import com.phegondev.PhegonHotel.datasource.ReadWriteRoutingDataSource;
+import com.phegondev.PhegonHotel.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write splitting, active only when {@code app.datasource.replica.url} is set. Without it Boot's single
+ * auto-configured pool is used as before.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+public class DataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                            @Value("${app.datasource.replica.url}") String url,
+                                            @Value("${app.datasource.replica.username:}") String username,
+                                            @Value("${app.datasource.replica.password:}") String password) {
+    HikariDataSource dataSource = DataSourceBuilder.create()
+        .type(HikariDataSource.class)
+        .driverClassName(properties.getDriverClassName())
+        .url(url)
+        .username(username.isBlank() ? properties.getUsername() : username)
+        .password(username.isBlank() ? properties.getPassword() : password)
+        .build();
+    dataSource.setPoolName("replica");
+    dataSource.setReadOnly(true);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                             @Qualifier("replicaDataSource") DataSource replica,
+                                             @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+                                             MeterRegistry registry) {
+    ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, maxLagMs);
+    Gauge.builder("app.datasource.replica.lag", monitor, ReplicaLagMonitor::getLagMs)
+        .description("Replication lag seen by the last heartbeat check, -1 when unknown")
+        .baseUnit("milliseconds")
+        .register(registry);
+    Gauge.builder("app.datasource.replica.available", monitor, m -> m.isReplicaAvailable() ? 1 : 0)
+        .description("1 while read-only transactions are routed to the replica")
+        .register(registry);
+    return monitor;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                               @Qualifier("replicaDataSource") DataSource replica,
+                               ReplicaLagMonitor replicaLagMonitor) {
+    return new LazyConnectionDataSourceProxy(
+        new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor::isReplicaAvailable));
+  }
+}
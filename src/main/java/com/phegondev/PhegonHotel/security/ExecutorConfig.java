@@ -0,0 +1,85 @@
+package com.phegondev.PhegonHotel.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+  /**
+   * Boot's {@code applicationTaskExecutor}, declared here because Boot backs off from its own as soon as the pools
+   * below exist. It is built from the auto-configured builders, so {@code spring.task.execution.*} still applies and
+   * it is a virtual thread executor when {@code spring.threads.virtual.enabled} is active, exactly as Boot would
+   * create it; anything asking for the default executor gets it instead of a bounded pool meant for other work.
+   */
+  @Lazy
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+          AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+  @ConditionalOnThreading(Threading.PLATFORM)
+  public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+    return builder.build();
+  }
+
+  @Lazy
+  @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+          AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public SimpleAsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+    return builder.build();
+  }
+
+  /**
+   * BCrypt is deliberately CPU-heavy, so hashing for bulk imports runs on a pool sized to the cores rather than
+   * on request threads. When the queue is full the submitting thread hashes itself, which throttles the import.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor passwordHashingExecutor(
+          @Value("${app.import.hashing-threads:0}") int hashingThreads,
+          @Value("${app.import.hashing-queue-capacity:500}") int queueCapacity) {
+    int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("password-hash-");
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Room photos go to S3 off the request thread. Unlike the hashing pool, a full queue refuses the upload rather
+   * than running it on the caller, which would block the request on S3 again. Queued uploads are finished on
+   * shutdown. With virtual threads enabled the uploads run on them, still at most {@code threads} at a time.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor roomPhotoUploadExecutor(
+          @Value("${app.rooms.photo-upload.threads:4}") int threads,
+          @Value("${app.rooms.photo-upload.queue-capacity:50}") int queueCapacity,
+          Environment environment) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(threads);
+    executor.setMaxPoolSize(threads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("room-photo-");
+    executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(30);
+    executor.initialize();
+    return executor;
+  }
+}
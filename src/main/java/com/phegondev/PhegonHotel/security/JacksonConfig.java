@@ -0,0 +1,45 @@
+package com.phegondev.PhegonHotel.security;
+
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.phegondev.PhegonHotel.utils.SparseFieldsets;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+@Configuration
+public class JacksonConfig {
+
+  /**
+   * Lets {@code ?fields=} trim the room, user and booking DTOs. Without the parameter the default filter writes
+   * every property, so responses are unchanged.
+   */
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+    return builder -> builder
+            .filters(SparseFieldsets.allFields())
+            .postConfigurer(mapper -> mapper.setAnnotationIntrospector(AnnotationIntrospector.pair(
+                    mapper.getSerializationConfig().getAnnotationIntrospector(),
+                    new SparseFieldsets.FilterIdIntrospector())));
+  }
+
+  /**
+   * {@code Accept: application/cbor} gets the JSON model in CBOR. The mapper comes from the same customized builder
+   * as the JSON one, so dates, null handling and {@code ?fields=} match; these converters replace the ones Spring
+   * MVC would otherwise build from a plain builder.
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+
+  // Accept: application/x-jackson-smile, as above
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+  }
+}
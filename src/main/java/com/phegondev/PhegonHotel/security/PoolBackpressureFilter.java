@@ -0,0 +1,98 @@
+package com.phegondev.PhegonHotel.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Turns booking and room search requests away with 503 and {@code Retry-After} while more than
+ * {@code maxPending} threads are already waiting on a Hikari pool, so a slow database sheds new work instead of
+ * parking every request thread in {@code getConnection}. The other endpoints are cheap or admin-only and are
+ * left to the pool's connection timeout.
+ */
+@Component
+public class PoolBackpressureFilter extends OncePerRequestFilter {
+
+    private static final String BUSY_BODY =
+            "{\"statusCode\":503,\"message\":\"The service is busy, please retry shortly\"}";
+
+    // Guarded routes, keyed by the endpoint tag on the rejection counter
+    private static final Map<String, RequestMatcher> GUARDED_ROUTES = new LinkedHashMap<>();
+
+    static {
+        GUARDED_ROUTES.put("book_room", new AntPathRequestMatcher("/api/bookings/book-room/**", HttpMethod.POST.name()));
+        GUARDED_ROUTES.put("available_rooms", new AntPathRequestMatcher("/api/rooms/all-available-rooms", HttpMethod.GET.name()));
+        GUARDED_ROUTES.put("room_search", new AntPathRequestMatcher("/api/rooms/available-rooms-by-date-and-type", HttpMethod.GET.name()));
+    }
+
+    @Autowired
+    private ObjectProvider<HikariDataSource> pools;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.backpressure.enabled:true}")
+    private boolean enabled;
+    @Value("${app.backpressure.max-pending:10}")
+    private int maxPending;
+    @Value("${app.backpressure.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || endpointOf(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (pendingAcquisitions() <= maxPending) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        meterRegistry.counter("app.backpressure.rejected.count", "endpoint", endpointOf(request)).increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(BUSY_BODY);
+    }
+
+    // With a read replica configured there are two pools; the busiest one decides
+    private int pendingAcquisitions() {
+        int pending = 0;
+        for (HikariDataSource pool : pools) {
+            // The MXBean is null until the pool has started
+            HikariPoolMXBean poolMXBean = pool.getHikariPoolMXBean();
+            if (poolMXBean != null) {
+                pending = Math.max(pending, poolMXBean.getThreadsAwaitingConnection());
+            }
+        }
+        return pending;
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        for (Map.Entry<String, RequestMatcher> route : GUARDED_ROUTES.entrySet()) {
+            if (route.getValue().matches(request)) {
+                return route.getKey();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.phegondev.PhegonHotel.security;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ReactiveReadConfig {
+
+  // Reactor's default for bounded elastic workers
+  private static final int IDLE_WORKER_TTL_SECONDS = 60;
+
+  /**
+   * Runs the blocking JDBC reads behind the {@code /api/rx} endpoints off the servlet threads. Threads are capped at
+   * the connection pool size, since more would only wait on Hikari; the queue bounds how many searches may wait,
+   * and beyond it a call fails fast and is answered with 503. With virtual threads enabled the workers are virtual,
+   * under the same caps.
+   */
+  @Bean(destroyMethod = "dispose")
+  public Scheduler roomReadScheduler(
+          @Value("${app.rx.read-threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+          @Value("${app.rx.read-queue-capacity:10000}") int queueCapacity,
+          Environment environment) {
+    if (Threading.VIRTUAL.isActive(environment)) {
+      ThreadFactory virtualThreads = new VirtualThreadTaskExecutor("room-read-").getVirtualThreadFactory();
+      return Schedulers.newBoundedElastic(threads, queueCapacity, virtualThreads, IDLE_WORKER_TTL_SECONDS);
+    }
+    return Schedulers.newBoundedElastic(threads, queueCapacity, "room-read");
+  }
+
+  /**
+   * Runs Spring MVC's asynchronous work: the NDJSON writes of the {@code /api/rx} streams and the admin NDJSON
+   * exports. An export keeps its thread, a read-only transaction and a pooled connection until the client has read
+   * the last row, so the thread count is also how many exports can run at once. Work beyond the threads waits in a
+   * bounded queue; when that is full too the request is refused with 503 (see {@code AsyncRejectionAdvice}) instead
+   * of queueing without limit. With virtual threads enabled the work runs on them under the same bounds.
+   */
+  @Bean
+  public ThreadPoolTaskExecutor mvcAsyncExecutor(
+          @Value("${app.rx.write-threads:8}") int writeThreads,
+          @Value("${app.rx.write-queue-capacity:100}") int queueCapacity,
+          Environment environment) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(writeThreads);
+    executor.setMaxPoolSize(writeThreads);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("mvc-async-");
+    executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    executor.initialize();
+    return executor;
+  }
+
+  @Bean
+  public WebMvcConfigurer asyncSupportConfigurer(@Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor) {
+    return new WebMvcConfigurer() {
+      @Override
+      public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
+      }
+    };
+  }
+}
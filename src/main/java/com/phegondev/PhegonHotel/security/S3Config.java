@@ -0,0 +1,51 @@
+package com.phegondev.PhegonHotel.security;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class S3Config {
+
+  /**
+   * One S3 client for the application, so uploads share its connection pool and TLS sessions instead of building
+   * a client per photo. The pool should be at least as large as the photo upload pool. Setting
+   * {@code aws.s3.endpoint} points the client at an S3-compatible store with path-style bucket addressing.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public AmazonS3 amazonS3(
+          @Value("${aws.s3.access.key}") String accessKey,
+          @Value("${aws.s3.secret.key}") String secretKey,
+          @Value("${aws.region.static}") String region,
+          @Value("${aws.s3.endpoint:}") String endpoint,
+          @Value("${aws.s3.client.max-connections:16}") int maxConnections,
+          @Value("${aws.s3.client.connection-timeout-ms:2000}") int connectionTimeoutMs,
+          @Value("${aws.s3.client.socket-timeout-ms:30000}") int socketTimeoutMs,
+          @Value("${aws.s3.client.request-timeout-ms:60000}") int requestTimeoutMs,
+          @Value("${aws.s3.client.max-error-retry:3}") int maxErrorRetry) {
+    ClientConfiguration clientConfiguration = new ClientConfiguration()
+            .withMaxConnections(maxConnections)
+            .withConnectionTimeout(connectionTimeoutMs)
+            .withSocketTimeout(socketTimeoutMs)
+            .withRequestTimeout(requestTimeoutMs)
+            .withMaxErrorRetry(maxErrorRetry)
+            .withTcpKeepAlive(true);
+
+    AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
+            .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey)))
+            .withClientConfiguration(clientConfiguration);
+    if (endpoint.isBlank()) {
+      builder.withRegion(region);
+    } else {
+      builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+              .withPathStyleAccessEnabled(true);
+    }
+    return builder.build();
+  }
+}
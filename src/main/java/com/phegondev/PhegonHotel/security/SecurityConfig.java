@@ -3,11 +3,13 @@ package com.phegondev.PhegonHotel.security;
 import com.phegondev.PhegonHotel.entity.User;
 import com.phegondev.PhegonHotel.repo.UserRepository;
 import com.phegondev.PhegonHotel.service.CustomUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -49,16 +51,26 @@ public class SecurityConfig {
   @Autowired
   private JWTAuthFilter jwtAuthFilter;
 
+  @Autowired
+  private PoolBackpressureFilter poolBackpressureFilter;
+
   @Bean
   public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
     httpSecurity.csrf(AbstractHttpConfigurer::disable)
             .cors(Customizer.withDefaults())
             .authorizeHttpRequests(request -> request
+                    // Streaming and SSE responses finish in an async dispatch; the request itself was authorized
+                    // already, and JWTAuthFilter does not run again to restore the authentication
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/api/auth/**", "/api/rooms/**", "/api/bookings/**").permitAll()
+                    .requestMatchers("/api/v2/rooms/**", "/api/v2/bookings/**").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/api/rx/rooms/**").permitAll()
                     .requestMatchers("/actuator/**").permitAll()
                     .anyRequest().authenticated())
             .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authenticationProvider(authenticationProvider())
+            // Shed load before any token parsing or user lookup happens
+            .addFilterBefore(poolBackpressureFilter, UsernamePasswordAuthenticationFilter.class)
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
     return httpSecurity.build();
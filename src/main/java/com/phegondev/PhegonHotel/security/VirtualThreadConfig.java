@@ -0,0 +1,45 @@
+package com.phegondev.PhegonHotel.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Opt-in virtual threads. {@code spring.threads.virtual.enabled=true} makes Boot run Tomcat requests,
+ * {@code @Scheduled} jobs and {@code applicationTaskExecutor} on virtual threads, so a request blocked on JDBC no
+ * longer holds one of a fixed number of platform threads. The application's own pools follow the same switch and keep
+ * their bounds: the S3 photo uploads ({@code roomPhotoUploadExecutor}), Spring MVC's async work
+ * ({@code mvcAsyncExecutor}) and the rx room reads ({@code roomReadScheduler}). The password hashing pool stays on
+ * platform threads because BCrypt is CPU-bound. The switch is only honoured on Java 21 or newer; on older runtimes
+ * it is ignored with a warning here.
+ */
+@Slf4j
+@Configuration
+public class VirtualThreadConfig {
+
+  @Value("${spring.threads.virtual.enabled:false}")
+  private boolean virtualThreadsRequested;
+
+  @PostConstruct
+  public void warnIfUnsupported() {
+    if (virtualThreadsRequested && Runtime.version().feature() < 21) {
+      log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; requests keep running on "
+              + "the platform thread pool. Run on Java 21 or newer to use them.", Runtime.version().feature());
+    }
+  }
+
+  @Bean
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+          MeterRegistry registry,
+          @Value("${app.threads.virtual.pinning-threshold-ms:20}") long pinningThresholdMs) {
+    return new VirtualThreadPinningMonitor(registry, Duration.ofMillis(pinningThresholdMs));
+  }
+}
@@ -1,76 +1,93 @@
 package com.phegondev.PhegonHotel.service;
 
 
-import com.amazonaws.auth.AWSStaticCredentialsProvider;
-import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.phegondev.PhegonHotel.exception.OurException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Slf4j
 @Service
 public class AwsS3Service {
 
-  @Value("${aws.s3.bucket.name}")
-  private String bucketName;
+  @Autowired
+  private AmazonS3 amazonS3;
 
-  @Value("${aws.s3.access.key}")
-  private String awsS3AccessKey;
+  @Autowired
+  private MeterRegistry meterRegistry;
 
-  @Value("${aws.s3.secret.key}")
-  private String awsS3SecretKey;
+  @Value("${aws.s3.bucket.name}")
+  private String bucketName;
 
   @Value("${aws.region.static}")
   private String region;
 
-  public String saveImageToS3(MultipartFile photo) {
-    try {
-      String s3Filename = photo.getOriginalFilename();
-
-      BasicAWSCredentials awsCredentials = new BasicAWSCredentials(awsS3AccessKey, awsS3SecretKey);
-      AmazonS3 s3Client = AmazonS3ClientBuilder.standard()
-              .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
-              .withRegion(region)
-              .build();
-
-      InputStream inputStream = photo.getInputStream();
+  @Value("${aws.s3.endpoint:}")
+  private String endpoint = "";
 
+  /**
+   * Uploads a photo already staged on local disk, as the background room photo uploads do; the SDK reads the
+   * content length from the file.
+   */
+  public String saveImageToS3(String s3Filename, Path photo) {
+    try {
       ObjectMetadata metadata = new ObjectMetadata();
       metadata.setContentType("image/jpeg");
-      metadata.setContentLength(photo.getSize()); // Add content length
 
-      PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, s3Filename, inputStream, metadata);
-      s3Client.putObject(putObjectRequest);
+      PutObjectRequest putObjectRequest = new PutObjectRequest(bucketName, s3Filename, photo.toFile())
+              .withMetadata(metadata);
+      return upload(putObjectRequest, Files.size(photo));
+    } catch (IOException e) {
+      throw new OurException("Unable to upload image to s3 bucket: " + e.getMessage());
+    }
+  }
 
-      // Correct URL format with region
-      return "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + s3Filename;
+  // Times every upload including the client's retries, and counts failures by S3 error code
+  private String upload(PutObjectRequest putObjectRequest, long bytes) {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "failure";
+    try {
+      amazonS3.putObject(putObjectRequest);
+      outcome = "success";
+      DistributionSummary.builder("app.s3.upload.bytes")
+              .description("Size of room photos uploaded to S3")
+              .baseUnit(BaseUnits.BYTES)
+              .register(meterRegistry)
+              .record(bytes);
+      return urlOf(putObjectRequest.getKey());
     } catch (Exception e) {
+      meterRegistry.counter("app.s3.upload.error.count", "reason", reasonOf(e)).increment();
       throw new OurException("Unable to upload image to s3 bucket: " + e.getMessage());
+    } finally {
+      sample.stop(meterRegistry.timer("app.s3.upload.time", "outcome", outcome));
     }
   }
-}
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
 
+  private static String reasonOf(Exception e) {
+    if (e instanceof AmazonServiceException serviceException && serviceException.getErrorCode() != null) {
+      return serviceException.getErrorCode();
+    }
+    return e.getClass().getSimpleName();
+  }
 
+  // Correct URL format with region
+  private String urlOf(String s3Filename) {
+    if (!endpoint.isBlank()) {
+      return amazonS3.getUrl(bucketName, s3Filename).toString();
+    }
+    return "https://" + bucketName + ".s3." + region + ".amazonaws.com/" + s3Filename;
+  }
+}
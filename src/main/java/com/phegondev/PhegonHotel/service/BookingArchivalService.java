@@ -0,0 +1,106 @@
+package com.phegondev.PhegonHotel.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Moves bookings whose stay ended more than {@code retentionDays} ago from {@code bookings} to
+ * {@code bookings_archive}, so the table behind the availability queries only holds current and upcoming stays.
+ * <p>
+ * Each batch is copied and deleted in its own transaction, keeping locks short and letting an interrupted run
+ * resume where it stopped. Booking is not in the second-level cache, so moving rows with plain SQL leaves no
+ * stale entries behind.
+ */
+@Slf4j
+@Service
+public class BookingArchivalService {
+
+    private static final String BOOKING_COLUMNS = "id, check_in_date, check_out_date, num_of_adults, num_of_children, " +
+            "total_num_of_guest, booking_confirmation_code, user_id, room_id";
+    private static final String SELECT_BATCH =
+            "SELECT id FROM bookings WHERE check_out_date < ? ORDER BY id LIMIT ?";
+    private static final String COPY_BATCH = "INSERT INTO bookings_archive (" + BOOKING_COLUMNS + ", archived_at) " +
+            "SELECT " + BOOKING_COLUMNS + ", :archivedAt FROM bookings WHERE id IN (:ids)";
+    private static final String DELETE_BATCH = "DELETE FROM bookings WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final RoomCatalogVersion roomCatalogVersion;
+    private final int retentionDays;
+    private final int batchSize;
+
+    public BookingArchivalService(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry registry,
+                                  RoomCatalogVersion roomCatalogVersion,
+                                  @Value("${app.booking.archive.retention-days:30}") int retentionDays,
+                                  @Value("${app.booking.archive.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.archivedCounter = Counter.builder("app.booking.archive.count")
+                .description("Number of bookings moved to bookings_archive")
+                .register(registry);
+        this.roomCatalogVersion = roomCatalogVersion;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${app.booking.archive.cron:0 30 3 * * *}")
+    public void archiveExpiredBookings() {
+        try {
+            int archived = archiveCheckedOutBefore(LocalDate.now().minusDays(retentionDays));
+            if (archived > 0) {
+                log.info("Archived {} bookings that checked out more than {} days ago", archived, retentionDays);
+            }
+        } catch (DataAccessException e) {
+            // Batches already moved stay moved; the next run picks up the rest
+            log.error("Booking archival stopped early", e);
+        }
+    }
+
+    /**
+     * Archives every booking that checked out before {@code cutoff}, in batches of {@code batchSize}.
+     *
+     * @return the number of bookings moved
+     */
+    public int archiveCheckedOutBefore(LocalDate cutoff) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+
+    private int archiveBatch(LocalDate cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_BATCH, Long.class, cutoff, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+                .addValue("archivedAt", new Timestamp(System.currentTimeMillis()));
+        namedParameterJdbcTemplate.update(COPY_BATCH, parameters);
+        namedParameterJdbcTemplate.update(DELETE_BATCH, parameters);
+        archivedCounter.increment(ids.size());
+        // Archived bookings drop off room-by-id
+        roomCatalogVersion.bump();
+        return ids.size();
+    }
+}
@@ -0,0 +1,38 @@
+package com.phegondev.PhegonHotel.service;
+
+/**
+ * Result of placing a booking. Failures that are part of normal booking (unknown room or guest, dates taken,
+ * losing every retry to a concurrent booking) are returned rather than thrown.
+ */
+public record BookingOutcome(Status status, String bookingConfirmationCode) {
+
+    public enum Status {
+        BOOKED("successful"),
+        ROOM_NOT_FOUND("Room Not Found"),
+        USER_NOT_FOUND("User Not Found"),
+        UNAVAILABLE("Room not Available for selected date range"),
+        CONFLICT("Room is being booked by someone else, please try again");
+
+        private final String message;
+
+        Status(String message) {
+            this.message = message;
+        }
+
+        public String message() {
+            return message;
+        }
+    }
+
+    public static BookingOutcome booked(String bookingConfirmationCode) {
+        return new BookingOutcome(Status.BOOKED, bookingConfirmationCode);
+    }
+
+    public static BookingOutcome failed(Status status) {
+        return new BookingOutcome(status, null);
+    }
+
+    public boolean isBooked() {
+        return status == Status.BOOKED;
+    }
+}
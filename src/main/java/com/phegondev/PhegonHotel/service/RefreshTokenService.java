@@ -0,0 +1,102 @@
+package com.phegondev.PhegonHotel.service;
+
+import com.phegondev.PhegonHotel.entity.RefreshToken;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 hash of each token is persisted.
+ * <p>
+ * Every refresh consumes the presented token and issues a new one in the same family. Presenting a token
+ * that was already consumed means it leaked, so the whole family is revoked and the user has to log in again.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-token.expiration-ms:604800000}")
+    private long refreshTokenExpirationMs;
+
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    @Transactional
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    @Transactional(noRollbackFor = OurException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new OurException("Invalid refresh token"));
+
+        if (current.isRevoked()) {
+            throw reuseDetected(current);
+        }
+        if (current.getExpiresAt().isBefore(Instant.now())) {
+            throw new OurException("Refresh token expired");
+        }
+        // The read above may be stale; only the refresh whose update consumes the token may rotate it
+        if (refreshTokenRepository.claim(current.getId()) == 0) {
+            throw reuseDetected(current);
+        }
+
+        String next = issue(current.getUser(), current.getFamilyId());
+        return new Rotation(current.getUser(), next);
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    private OurException reuseDetected(RefreshToken token) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId());
+        log.warn("Refresh token reuse detected for family {}, revoked {} tokens", token.getFamilyId(), revoked);
+        return new OurException("Refresh token reuse detected");
+    }
+
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setFamilyId(familyId);
+        refreshToken.setUser(user);
+        refreshToken.setExpiresAt(Instant.now().plusMillis(refreshTokenExpirationMs));
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.phegondev.PhegonHotel.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of everything the public room reads return: the rooms themselves and the bookings embedded in
+ * {@code room-by-id}. Any change to either moves it forward, and the room endpoints derive their ETags from it,
+ * so a conditional GET can be answered without reading the rooms.
+ * <p>
+ * The version is bumped after the change commits. Readers take the tag before they query, so a tag may be paired
+ * with newer content than it names (costing one extra download), but never with older content. Tags carry the
+ * start time of this instance, so counters restarting from zero cannot repeat a tag handed out before a restart.
+ * Like the second-level cache, the version is local to one instance.
+ */
+@Service
+public class RoomCatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag for one representation of the catalog at the current version; {@code resource} tells the
+     * representations apart.
+     */
+    public String etag(String resource) {
+        return "\"" + resource + "-" + epoch + "-" + version.get() + "\"";
+    }
+
+    /**
+     * Moves the version forward once the surrounding transaction commits, or straight away outside one.
+     * A rolled back change leaves it alone.
+     */
+    public void bump() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,208 @@
+package com.phegondev.PhegonHotel.service;
+
+import com.phegondev.PhegonHotel.dto.RoomUploadDTO;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Uploads room photos to S3 in the background so adding or re-photographing a room does not hold a request thread
+ * for the upload.
+ * <p>
+ * The request only moves the photo to a local file and queues the upload on {@code roomPhotoUploadExecutor}; a full
+ * queue throws {@link java.util.concurrent.RejectedExecutionException}. A new room is saved once its photo is
+ * stored, so it is never listed without one; a new photo for an existing room replaces the old one when stored,
+ * unless a photo submitted after it has already been stored. Progress is kept per upload id for polling
+ * and subscription, in memory and local to this instance like {@link RoomCatalogVersion}.
+ */
+@Slf4j
+@Service
+public class RoomPhotoUploads {
+
+    @Autowired
+    private AwsS3Service awsS3Service;
+    @Autowired
+    private RoomRepository roomRepository;
+    @Autowired
+    private RoomCatalogVersion roomCatalogVersion;
+    @Autowired
+    private TransactionOperations transactionTemplate;
+    @Autowired
+    @Qualifier("roomPhotoUploadExecutor")
+    private Executor roomPhotoUploadExecutor;
+
+    @Value("${app.rooms.photo-upload.status-retention-minutes:15}")
+    private long statusRetentionMinutes = 15;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+    // Photo changes in flight for each existing room, dropped when the last one finishes
+    private final Map<Long, RoomPhotoChanges> photoChanges = new ConcurrentHashMap<>();
+    private final AtomicLong photoChangeSequence = new AtomicLong();
+
+    public RoomUploadDTO submitNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice, String description)
+            throws IOException {
+        Upload upload = new Upload(null);
+        return submit(upload, photo, photoUrl -> {
+            Room savedRoom = transactionTemplate.execute(status -> {
+                Room room = new Room();
+                room.setRoomPhotoUrl(photoUrl);
+                room.setRoomType(roomType);
+                room.setRoomPrice(roomPrice);
+                room.setRoomDescription(description);
+                Room saved = roomRepository.save(room);
+                roomCatalogVersion.bump();
+                return saved;
+            });
+            upload.roomId = savedRoom.getId();
+            return RoomUploadDTO.COMPLETED;
+        });
+    }
+
+    public RoomUploadDTO submitPhotoChange(Long roomId, MultipartFile photo) throws IOException {
+        Upload upload = new Upload(roomId);
+        upload.photoChange = photoChangeSequence.incrementAndGet();
+        photoChanges.compute(roomId, (id, changes) -> {
+            RoomPhotoChanges inFlight = changes == null ? new RoomPhotoChanges() : changes;
+            inFlight.count++;
+            return inFlight;
+        });
+        try {
+            return submit(upload, photo, photoUrl -> applyPhotoChange(upload, photoUrl));
+        } catch (IOException | RuntimeException e) {
+            releasePhotoChange(upload);
+            throw e;
+        }
+    }
+
+    public Optional<RoomUploadDTO> find(String uploadId) {
+        return Optional.ofNullable(uploads.get(uploadId)).map(Upload::snapshot);
+    }
+
+    // Completes with the final state of the upload, straight away if it has already finished
+    public Optional<CompletableFuture<RoomUploadDTO>> whenFinished(String uploadId) {
+        return Optional.ofNullable(uploads.get(uploadId)).map(upload -> upload.finished);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rooms.photo-upload.purge-interval-ms:60000}")
+    public void purgeFinished() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(statusRetentionMinutes);
+        uploads.values().removeIf(upload -> upload.finishedAt != 0 && upload.finishedAt < cutoff);
+    }
+
+    private RoomUploadDTO submit(Upload upload, MultipartFile photo, Function<String, String> store) throws IOException {
+        String s3Filename = photo.getOriginalFilename();
+        // The multipart file is deleted when the request ends, so the upload reads from a copy of its own
+        Path staged = Files.createTempFile("room-photo-", ".upload");
+        try {
+            photo.transferTo(staged);
+            uploads.put(upload.id, upload);
+            roomPhotoUploadExecutor.execute(() -> run(upload, s3Filename, staged, store));
+        } catch (IOException | RuntimeException e) {
+            uploads.remove(upload.id);
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return upload.snapshot();
+    }
+
+    private void run(Upload upload, String s3Filename, Path staged, Function<String, String> store) {
+        try {
+            String photoUrl = awsS3Service.saveImageToS3(s3Filename, staged);
+            upload.roomPhotoUrl = photoUrl;
+            upload.finish(store.apply(photoUrl), null);
+        } catch (Exception e) {
+            log.warn("Room photo upload {} failed: {}", upload.id, e.getMessage());
+            upload.finish(RoomUploadDTO.FAILED, e.getMessage());
+        } finally {
+            if (upload.photoChange != 0) {
+                releasePhotoChange(upload);
+            }
+            try {
+                Files.deleteIfExists(staged);
+            } catch (IOException e) {
+                log.warn("Could not delete staged room photo {}", staged, e);
+            }
+        }
+    }
+
+    private String applyPhotoChange(Upload upload, String photoUrl) {
+        // Registered until this upload finishes, so always present here
+        RoomPhotoChanges changes = photoChanges.get(upload.roomId);
+        // Only uploads for the same room wait on each other; a failed newer photo never blocks an older one
+        synchronized (changes) {
+            if (upload.photoChange < changes.stored) {
+                return RoomUploadDTO.SUPERSEDED;
+            }
+            int updated = transactionTemplate.execute(status -> {
+                int rows = roomRepository.updateRoomPhotoUrl(upload.roomId, photoUrl);
+                roomCatalogVersion.bump();
+                return rows;
+            });
+            if (updated == 0) {
+                throw new OurException("Room Not Found");
+            }
+            changes.stored = upload.photoChange;
+        }
+        return RoomUploadDTO.COMPLETED;
+    }
+
+    private void releasePhotoChange(Upload upload) {
+        photoChanges.computeIfPresent(upload.roomId, (roomId, changes) -> --changes.count == 0 ? null : changes);
+    }
+
+    private static final class RoomPhotoChanges {
+        // Guarded by photoChanges' lock for the room
+        private int count;
+        // Guarded by this
+        private long stored;
+    }
+
+    private static final class Upload {
+        private final String id = UUID.randomUUID().toString();
+        private final CompletableFuture<RoomUploadDTO> finished = new CompletableFuture<>();
+        private volatile Long roomId;
+        // Submission order of a photo change for an existing room, 0 for a new room
+        private volatile long photoChange;
+        private volatile String status = RoomUploadDTO.PENDING;
+        private volatile String roomPhotoUrl;
+        private volatile String message;
+        private volatile long finishedAt;
+
+        private Upload(Long roomId) {
+            this.roomId = roomId;
+        }
+
+        private void finish(String status, String message) {
+            this.status = status;
+            this.message = message;
+            this.finishedAt = System.currentTimeMillis();
+            finished.complete(snapshot());
+        }
+
+        private RoomUploadDTO snapshot() {
+            return new RoomUploadDTO(id, status, roomId, roomPhotoUrl, message);
+        }
+    }
+}
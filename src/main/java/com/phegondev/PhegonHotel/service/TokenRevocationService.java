@@ -0,0 +1,76 @@
+package com.phegondev.PhegonHotel.service;
+
+import com.phegondev.PhegonHotel.utils.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Denylist of tokens that were revoked (logged out) before their expiry.
+ * <p>
+ * Lookups go through a Bloom filter first, so the common not-revoked case never touches the exact set.
+ * Entries are dropped once the token would have expired anyway, and the filter is rebuilt from what is left.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationService(@Value("${jwt.revocation.expected-insertions:100000}") long expectedInsertions,
+                                  @Value("${jwt.revocation.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    public synchronized void revoke(String token, Date expiresAt) {
+        if (expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        String key = keyOf(token);
+        revokedTokens.put(key, expiresAt.getTime());
+        bloomFilter.put(key);
+    }
+
+    public boolean isRevoked(String token) {
+        String key = keyOf(token);
+        if (!bloomFilter.mightContain(key)) {
+            return false;
+        }
+        Long expiresAt = revokedTokens.get(key);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:60000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = revokedTokens.size();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        if (revokedTokens.size() == before) {
+            return;
+        }
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revokedTokens.size() * 2L), falsePositiveProbability);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        log.debug("Purged {} expired revoked tokens, {} remaining", before - revokedTokens.size(), revokedTokens.size());
+    }
+
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    // The signature segment is unique per token and much shorter than the whole compact JWT
+    private static String keyOf(String token) {
+        int lastDot = token.lastIndexOf('.');
+        return lastDot >= 0 ? token.substring(lastDot + 1) : token;
+    }
+}
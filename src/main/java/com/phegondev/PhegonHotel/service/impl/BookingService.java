@@ -2,6 +2,8 @@ package com.phegondev.PhegonHotel.service.impl;
 
 import com.phegondev.PhegonHotel.dto.BookingDTO;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.v2.BookingDetail;
+import com.phegondev.PhegonHotel.dto.v2.BookingRequest;
 import com.phegondev.PhegonHotel.entity.Booking;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
@@ -9,16 +11,28 @@ import com.phegondev.PhegonHotel.exception.OurException;
 import com.phegondev.PhegonHotel.repo.BookingRepository;
 import com.phegondev.PhegonHotel.repo.RoomRepository;
 import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.service.BookingOutcome;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
 import com.phegondev.PhegonHotel.service.interfac.IBookingService;
 import com.phegondev.PhegonHotel.service.interfac.IRoomService;
 import com.phegondev.PhegonHotel.utils.Utils;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class BookingService implements IBookingService {
@@ -40,8 +54,30 @@ public class BookingService implements IBookingService {
   private RoomRepository roomRepository;
   @Autowired
   private UserRepository userRepository;
-
-
+  @Autowired
+  private RoomCatalogVersion roomCatalogVersion;
+  @Autowired
+  private TransactionOperations transactionTemplate;
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Value("${app.booking.optimistic-locking.enabled:true}")
+  private boolean optimisticLockingEnabled = true;
+  @Value("${app.booking.optimistic-locking.max-attempts:3}")
+  private int maxAttempts = 3;
+  @Value("${app.booking.optimistic-locking.backoff-ms:25}")
+  private long backoffMs = 25;
+  @Value("${app.booking.optimistic-locking.max-backoff-ms:200}")
+  private long maxBackoffMs = 200;
+
+
+  /**
+   * Books the room if it is free for the requested dates.
+   * <p>
+   * With optimistic locking on, each attempt bumps the room's version, so of two overlapping requests that passed
+   * the availability check against the same bookings only the first to commit succeeds. The other is retried with
+   * backoff, and on retry sees the committed booking and gets the usual "not available" answer.
+   */
   @Override
   public Response saveBooking(Long roomId, Long userId, Booking bookingRequest) {
     Timer.Sample sample = Timer.start();
@@ -52,29 +88,16 @@ public class BookingService implements IBookingService {
         createBookingErrorCounter.increment();
         throw new IllegalArgumentException("Check in date must come after check out date");
       }
-      Room room = roomRepository.findById(roomId).orElseThrow(() -> new OurException("Room Not Found"));
-      User user = userRepository.findById(userId).orElseThrow(() -> new OurException("User Not Found"));
-
-      List<Booking> existingBookings = room.getBookings();
-
-      if (!roomIsAvailable(bookingRequest, existingBookings)) {
+      BookingOutcome outcome = bookWithRetry(roomId, userId, bookingRequest);
+      if (outcome.isBooked()) {
+        response.setStatusCode(200);
+        response.setBookingConfirmationCode(outcome.bookingConfirmationCode());
+        createBookingCounter.increment();
+      } else {
         createBookingErrorCounter.increment();
-        throw new OurException("Room not Available for selected date range");
+        response.setStatusCode(outcome.status() == BookingOutcome.Status.CONFLICT ? 409 : 404);
       }
-
-      bookingRequest.setRoom(room);
-      bookingRequest.setUser(user);
-      String bookingConfirmationCode = Utils.generateRandomConfirmationCode(10);
-      bookingRequest.setBookingConfirmationCode(bookingConfirmationCode);
-      bookingRepository.save(bookingRequest);
-      response.setStatusCode(200);
-      response.setMessage("successful");
-      response.setBookingConfirmationCode(bookingConfirmationCode);
-      createBookingCounter.increment();
-    } catch (OurException e) {
-      createBookingErrorCounter.increment();
-      response.setStatusCode(404);
-      response.setMessage(e.getMessage());
+      response.setMessage(outcome.status().message());
 
     } catch (Exception e) {
       createBookingErrorCounter.increment();
@@ -86,6 +109,86 @@ public class BookingService implements IBookingService {
     return response;
   }
 
+  /**
+   * Same booking as {@link #saveBooking} for callers that validated the request themselves. Expected failures come
+   * back as the outcome; only unexpected errors are thrown.
+   */
+  @Override
+  public BookingOutcome createBooking(BookingRequest request) {
+    Timer.Sample sample = Timer.start();
+    try {
+      Booking booking = new Booking();
+      booking.setCheckInDate(request.checkInDate());
+      booking.setCheckOutDate(request.checkOutDate());
+      booking.setNumOfAdults(request.numOfAdults());
+      booking.setNumOfChildren(request.numOfChildren());
+      BookingOutcome outcome = bookWithRetry(request.roomId(), request.userId(), booking);
+      (outcome.isBooked() ? createBookingCounter : createBookingErrorCounter).increment();
+      return outcome;
+    } catch (RuntimeException e) {
+      createBookingErrorCounter.increment();
+      throw e;
+    } finally {
+      sample.stop(createBookingTimer);
+    }
+  }
+
+  private BookingOutcome bookWithRetry(Long roomId, Long userId, Booking bookingRequest) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(status -> {
+          BookingOutcome outcome = book(roomId, userId, bookingRequest);
+          if (!outcome.isBooked()) {
+            // Nothing was written, but the version bump taken with the lock must not commit
+            status.setRollbackOnly();
+          }
+          return outcome;
+        });
+      } catch (OptimisticLockingFailureException e) {
+        if (attempt >= maxAttempts) {
+          return BookingOutcome.failed(BookingOutcome.Status.CONFLICT);
+        }
+        // The rolled back attempt left its generated id on the request
+        bookingRequest.setId(null);
+        long ceiling = Math.min(maxBackoffMs, backoffMs << Math.min(attempt - 1, 16));
+        try {
+          Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return BookingOutcome.failed(BookingOutcome.Status.CONFLICT);
+        }
+      }
+    }
+  }
+
+  private BookingOutcome book(Long roomId, Long userId, Booking bookingRequest) {
+    Room room = roomRepository.findById(roomId).orElse(null);
+    if (room == null) {
+      return BookingOutcome.failed(BookingOutcome.Status.ROOM_NOT_FOUND);
+    }
+    User user = userRepository.findById(userId).orElse(null);
+    if (user == null) {
+      return BookingOutcome.failed(BookingOutcome.Status.USER_NOT_FOUND);
+    }
+    if (optimisticLockingEnabled) {
+      entityManager.lock(room, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+    }
+
+    List<Booking> existingBookings = room.getBookings();
+
+    if (!roomIsAvailable(bookingRequest, existingBookings)) {
+      return BookingOutcome.failed(BookingOutcome.Status.UNAVAILABLE);
+    }
+
+    bookingRequest.setRoom(room);
+    bookingRequest.setUser(user);
+    String bookingConfirmationCode = Utils.generateRandomConfirmationCode(10);
+    bookingRequest.setBookingConfirmationCode(bookingConfirmationCode);
+    bookingRepository.save(bookingRequest);
+    roomCatalogVersion.bump();
+    return BookingOutcome.booked(bookingConfirmationCode);
+  }
+
 
   @Override
   public Response findBookingByConfirmationCode(String confirmationCode) {
@@ -112,13 +215,22 @@ public class BookingService implements IBookingService {
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public Optional<BookingDetail> findBookingDetail(String confirmationCode) {
+    return bookingRepository.findByBookingConfirmationCode(confirmationCode)
+            .map(booking -> new BookingDetail(Utils.mapBookingEntityToBookingView(booking),
+                    Utils.mapRoomEntityToRoomView(booking.getRoom()),
+                    Utils.mapUserEntityToGuestView(booking.getUser())));
+  }
+
+  @Override
+  @Transactional(readOnly = true)
   public Response getAllBookings() {
 
     Response response = new Response();
 
     try {
-      List<Booking> bookingList = bookingRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-      List<BookingDTO> bookingDTOList = Utils.mapBookingListEntityToBookingListDTO(bookingList);
+      List<BookingDTO> bookingDTOList = bookingRepository.findAllBookingDTOs();
       response.setStatusCode(200);
       response.setMessage("successful");
       response.setBookingList(bookingDTOList);
@@ -136,21 +248,26 @@ public class BookingService implements IBookingService {
   }
 
   @Override
+  @Transactional(readOnly = true)
+  public void streamAllBookings(Consumer<BookingDTO> action) {
+    // Rows are handed on as they are read, so the export never holds more than a fetch of them
+    try (Stream<BookingDTO> bookings = bookingRepository.streamAllBookingDTOs()) {
+      bookings.forEach(action);
+    }
+  }
+
+  @Override
+  @Transactional
   public Response cancelBooking(Long bookingId) {
     Response response = new Response();
     try {
-      // Capture the returned Booking object
-      Booking booking = bookingRepository.findById(bookingId)
-              .orElseThrow(() -> new OurException("Booking Does Not Exist"));
-
-      // Use the booking object directly or still delete by ID
-      bookingRepository.delete(booking); // or keep using deleteById(bookingId)
-
-      response.setStatusCode(200);
-      response.setMessage("successful");
-    } catch (OurException e) {
-      response.setStatusCode(404);
-      response.setMessage(e.getMessage());
+      if (deleteBooking(bookingId)) {
+        response.setStatusCode(200);
+        response.setMessage("successful");
+      } else {
+        response.setStatusCode(404);
+        response.setMessage("Booking Does Not Exist");
+      }
     } catch (Exception e) {
       response.setStatusCode(500);
       response.setMessage("Error Cancelling a booking: " + e.getMessage());
@@ -158,6 +275,17 @@ public class BookingService implements IBookingService {
     return response;
   }
 
+  @Override
+  @Transactional
+  public boolean deleteBooking(Long bookingId) {
+    Optional<Booking> booking = bookingRepository.findById(bookingId);
+    booking.ifPresent(found -> {
+      bookingRepository.delete(found);
+      roomCatalogVersion.bump();
+    });
+    return booking.isPresent();
+  }
+
 
   private boolean roomIsAvailable(Booking bookingRequest, List<Booking> existingBookings) {
 
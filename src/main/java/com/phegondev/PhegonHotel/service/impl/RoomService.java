@@ -2,50 +2,61 @@ package com.phegondev.PhegonHotel.service.impl;
 
 import com.phegondev.PhegonHotel.dto.Response;
 import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.RoomUploadDTO;
+import com.phegondev.PhegonHotel.dto.v2.RoomDetail;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.exception.OurException;
 import com.phegondev.PhegonHotel.repo.BookingRepository;
 import com.phegondev.PhegonHotel.repo.RoomRepository;
-import com.phegondev.PhegonHotel.service.AwsS3Service;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
 import com.phegondev.PhegonHotel.service.interfac.IRoomService;
 import com.phegondev.PhegonHotel.utils.Utils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class RoomService implements IRoomService {
 
+    private static final String TOO_MANY_UPLOADS = "Too many room photos are being uploaded, please try again later";
+    private static final String PHOTO_NOT_CHANGED = "Room updated but the photo was not changed: ";
 
     @Autowired
     private RoomRepository roomRepository;
     @Autowired
     private BookingRepository bookingRepository;
     @Autowired
-    private AwsS3Service awsS3Service;
+    private RoomCatalogVersion roomCatalogVersion;
+    @Autowired
+    private RoomPhotoUploads roomPhotoUploads;
 
     @Override
     public Response addNewRoom(MultipartFile photo, String roomType, BigDecimal roomPrice, String description) {
         Response response = new Response();
 
         try {
-            String imageUrl = awsS3Service.saveImageToS3(photo);
-            Room room = new Room();
-            room.setRoomPhotoUrl(imageUrl);
-            room.setRoomType(roomType);
-            room.setRoomPrice(roomPrice);
-            room.setRoomDescription(description);
-            Room savedRoom = roomRepository.save(room);
-            RoomDTO roomDTO = Utils.mapRoomEntityToRoomDTO(savedRoom);
-            response.setStatusCode(200);
-            response.setMessage("successful");
-            response.setRoom(roomDTO);
+            // The room is saved, and listed, once its photo is in S3
+            RoomUploadDTO upload = roomPhotoUploads.submitNewRoom(photo, roomType, roomPrice, description);
+            response.setStatusCode(202);
+            response.setMessage("Room will be listed once its photo is uploaded");
+            response.setRoomUpload(upload);
 
+        } catch (RejectedExecutionException e) {
+            response.setStatusCode(503);
+            response.setMessage(TOO_MANY_UPLOADS);
         } catch (Exception e) {
             response.setStatusCode(500);
             response.setMessage("Error saving a room " + e.getMessage());
@@ -54,17 +65,18 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<String> getAllRoomTypes() {
         return roomRepository.findDistinctRoomTypes();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Response getAllRooms() {
         Response response = new Response();
 
         try {
-            List<Room> roomList = roomRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-            List<RoomDTO> roomDTOList = Utils.mapRoomListEntityToRoomListDTO(roomList);
+            List<RoomDTO> roomDTOList = roomRepository.findAllRoomDTOs();
             response.setStatusCode(200);
             response.setMessage("successful");
             response.setRoomList(roomDTOList);
@@ -77,15 +89,27 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamAllRooms(Consumer<RoomDTO> action) {
+        try (Stream<RoomDTO> rooms = roomRepository.streamAllRoomDTOs()) {
+            rooms.forEach(action);
+        }
+    }
+
+    @Override
+    @Transactional
     public Response deleteRoom(Long roomId) {
         Response response = new Response();
 
         try {
-            // Capture the returned Room object
-            Room room = roomRepository.findById(roomId).orElseThrow(() -> new OurException("Room Not Found"));
+            if (!roomRepository.existsById(roomId)) {
+                throw new OurException("Room Not Found");
+            }
 
-            // Use the room object directly for deletion
-            roomRepository.delete(room); // or keep using deleteById(roomId)
+            // Bookings go in one statement; removing the room afterwards only cascades over an empty collection
+            bookingRepository.deleteAllByRoomIdInBulk(roomId);
+            roomRepository.deleteById(roomId);
+            roomCatalogVersion.bump();
 
             response.setStatusCode(200);
             response.setMessage("successful");
@@ -101,26 +125,27 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional
     public Response updateRoom(Long roomId, String description, String roomType, BigDecimal roomPrice, MultipartFile photo) {
         Response response = new Response();
 
         try {
-            String imageUrl = null;
-            if (photo != null && !photo.isEmpty()) {
-                imageUrl = awsS3Service.saveImageToS3(photo);
-            }
             Room room = roomRepository.findById(roomId).orElseThrow(() -> new OurException("Room Not Found"));
             if (roomType != null) room.setRoomType(roomType);
             if (roomPrice != null) room.setRoomPrice(roomPrice);
             if (description != null) room.setRoomDescription(description);
-            if (imageUrl != null) room.setRoomPhotoUrl(imageUrl);
 
             Room updatedRoom = roomRepository.save(room);
-            RoomDTO roomDTO = Utils.mapRoomEntityToRoomDTO(updatedRoom);
-
+            roomCatalogVersion.bump();
             response.setStatusCode(200);
             response.setMessage("successful");
-            response.setRoom(roomDTO);
+            response.setRoom(Utils.mapRoomEntityToRoomDTO(updatedRoom));
+
+            if (photo != null && !photo.isEmpty()) {
+                // The upload writes the new photo URL in its own transaction, so it is only queued once this one has
+                // committed: it can then neither be overwritten by this update nor survive its rollback
+                afterCommit(() -> submitPhotoChange(response, roomId, photo));
+            }
 
         } catch (OurException e) {
             response.setStatusCode(404);
@@ -132,7 +157,37 @@ public class RoomService implements IRoomService {
         return response;
     }
 
+    // Runs before the response reaches the caller, since the commit happens as updateRoom returns
+    private void submitPhotoChange(Response response, Long roomId, MultipartFile photo) {
+        try {
+            RoomUploadDTO upload = roomPhotoUploads.submitPhotoChange(roomId, photo);
+            response.setStatusCode(202);
+            response.setMessage("Room updated, the new photo replaces the current one once uploaded");
+            response.setRoomUpload(upload);
+        } catch (RejectedExecutionException e) {
+            response.setStatusCode(503);
+            response.setMessage(PHOTO_NOT_CHANGED + TOO_MANY_UPLOADS);
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage(PHOTO_NOT_CHANGED + "Error saving the photo " + e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public Response getRoomById(Long roomId) {
         Response response = new Response();
 
@@ -154,6 +209,41 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<RoomView> getRoomViews() {
+        return roomRepository.findAllRoomViews();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RoomDetail> findRoomDetail(Long roomId) {
+        return roomRepository.findById(roomId)
+                .map(room -> new RoomDetail(Utils.mapRoomEntityToRoomView(room),
+                        bookingRepository.findBookingViewsByRoomId(roomId)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RoomView> findAvailableRoomViews(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
+        return roomRepository.findAvailableRoomViews(checkInDate, checkOutDate, roomType);
+    }
+
+    @Override
+    public Response getRoomUpload(String uploadId) {
+        Response response = new Response();
+        roomPhotoUploads.find(uploadId).ifPresentOrElse(upload -> {
+            response.setStatusCode(200);
+            response.setMessage("successful");
+            response.setRoomUpload(upload);
+        }, () -> {
+            response.setStatusCode(404);
+            response.setMessage("Upload Not Found");
+        });
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Response getAvailableRoomsByDataAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType) {
         Response response = new Response();
 
@@ -172,6 +262,7 @@ public class RoomService implements IRoomService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Response getAllAvailableRooms() {
         Response response = new Response();
 
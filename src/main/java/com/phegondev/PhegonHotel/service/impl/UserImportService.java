@@ -0,0 +1,309 @@
+package com.phegondev.PhegonHotel.service.impl;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.UserImportRequest;
+import com.phegondev.PhegonHotel.dto.UserImportResultDTO;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.service.interfac.IUserImportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Registers many users from a CSV or JSON array stream.
+ * <p>
+ * Rows are processed in chunks: one {@code IN} query dedupes a chunk against existing users, passwords are
+ * hashed in parallel on a bounded pool, and the surviving rows are flushed as Hibernate JDBC batches
+ * ({@code hibernate.jdbc.batch_size}) in one transaction per chunk.
+ */
+@Slf4j
+@Service
+public class UserImportService implements IUserImportService {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionOperations transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private Executor passwordHashingExecutor;
+
+    @Value("${app.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    private static final Set<String> ROLES = Set.of("USER", "ADMIN");
+
+    private record PendingRow(int row, UserImportRequest request) {
+    }
+
+    @Override
+    public Response importUsers(InputStream inputStream, String contentType) {
+        Response response = new Response();
+        List<UserImportResultDTO> results = new ArrayList<>();
+
+        try {
+            Iterator<UserImportRequest> rows = isCsv(contentType) ? csvRows(inputStream) : jsonRows(inputStream);
+            Set<String> seenEmails = new HashSet<>();
+            List<PendingRow> chunk = new ArrayList<>(chunkSize);
+            int rowNumber = 0;
+
+            while (rows.hasNext()) {
+                chunk.add(new PendingRow(++rowNumber, rows.next()));
+                if (chunk.size() == chunkSize) {
+                    results.addAll(importChunk(chunk, seenEmails));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                results.addAll(importChunk(chunk, seenEmails));
+            }
+
+            long created = results.stream().filter(r -> UserImportResultDTO.CREATED.equals(r.getStatus())).count();
+            long skipped = results.stream().filter(r -> UserImportResultDTO.SKIPPED.equals(r.getStatus())).count();
+            response.setStatusCode(200);
+            response.setMessage("Imported " + created + ", skipped " + skipped + ", failed " + (results.size() - created - skipped));
+            response.setImportResults(results);
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+            response.setImportResults(results);
+
+        } catch (Exception e) {
+            response.setStatusCode(500);
+            response.setMessage("Error Occurred During User Import " + e.getMessage());
+            response.setImportResults(results);
+        }
+        return response;
+    }
+
+    private List<UserImportResultDTO> importChunk(List<PendingRow> chunk, Set<String> seenEmails) {
+        Map<Integer, UserImportResultDTO> results = new HashMap<>();
+        List<PendingRow> candidates = new ArrayList<>();
+
+        for (PendingRow pending : chunk) {
+            UserImportRequest request = pending.request();
+            // Emails compare case-insensitively, so "A@x.com" and "a@x.com" are one user
+            String email = request.getEmail() == null ? null : request.getEmail().trim().toLowerCase(Locale.ROOT);
+            request.setEmail(email);
+            String role = isBlank(request.getRole()) ? "USER" : request.getRole().trim().toUpperCase(Locale.ROOT);
+            request.setRole(role);
+            if (isBlank(email) || isBlank(request.getName()) || isBlank(request.getPhoneNumber()) || isBlank(request.getPassword())) {
+                results.put(pending.row(), new UserImportResultDTO(pending.row(), email, UserImportResultDTO.FAILED,
+                        "Missing required fields(email, name, phoneNumber, password)"));
+            } else if (!ROLES.contains(role)) {
+                results.put(pending.row(), new UserImportResultDTO(pending.row(), email, UserImportResultDTO.FAILED,
+                        "Invalid role " + role + ", expected USER or ADMIN"));
+            } else if (!seenEmails.add(email)) {
+                results.put(pending.row(), new UserImportResultDTO(pending.row(), email, UserImportResultDTO.SKIPPED,
+                        "Duplicate email in import"));
+            } else {
+                candidates.add(pending);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            Set<String> existing = new HashSet<>();
+            userRepository.findExistingEmails(candidates.stream().map(p -> p.request().getEmail()).toList())
+                    .forEach(found -> existing.add(found.toLowerCase(Locale.ROOT)));
+            List<PendingRow> toInsert = new ArrayList<>();
+            for (PendingRow pending : candidates) {
+                if (existing.contains(pending.request().getEmail())) {
+                    results.put(pending.row(), new UserImportResultDTO(pending.row(), pending.request().getEmail(),
+                            UserImportResultDTO.SKIPPED, pending.request().getEmail() + " Already Exists"));
+                } else {
+                    toInsert.add(pending);
+                }
+            }
+            insertBatch(toInsert, results);
+        }
+
+        return chunk.stream().map(pending -> results.get(pending.row())).toList();
+    }
+
+    private void insertBatch(List<PendingRow> rows, Map<Integer, UserImportResultDTO> results) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<CompletableFuture<String>> hashes = rows.stream()
+                .map(pending -> CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(pending.request().getPassword()), passwordHashingExecutor))
+                .toList();
+
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            UserImportRequest request = rows.get(i).request();
+            User user = new User();
+            user.setEmail(request.getEmail());
+            user.setName(request.getName());
+            user.setPhoneNumber(request.getPhoneNumber());
+            user.setPassword(hashes.get(i).join());
+            user.setRole(request.getRole());
+            users.add(user);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAllAndFlush(users);
+                // The request-scoped persistence context would otherwise keep every imported user managed
+                entityManager.clear();
+            });
+            rows.forEach(pending -> results.put(pending.row(), new UserImportResultDTO(pending.row(),
+                    pending.request().getEmail(), UserImportResultDTO.CREATED, null)));
+        } catch (DataAccessException e) {
+            // Most likely a concurrent registration took one of the emails; the whole batch was rolled back
+            log.warn("User import batch of {} rows failed: {}", rows.size(), e.getMessage());
+            rows.forEach(pending -> results.put(pending.row(), new UserImportResultDTO(pending.row(),
+                    pending.request().getEmail(), UserImportResultDTO.FAILED, "Batch insert failed, please retry")));
+        }
+    }
+
+    private Iterator<UserImportRequest> jsonRows(InputStream inputStream) throws IOException {
+        MappingIterator<UserImportRequest> iterator = objectMapper.readerFor(UserImportRequest.class).readValues(inputStream);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return iterator.hasNextValue();
+                } catch (IOException e) {
+                    throw new OurException("Invalid JSON import payload: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public UserImportRequest next() {
+                try {
+                    return iterator.nextValue();
+                } catch (IOException e) {
+                    throw new OurException("Invalid JSON import payload: " + e.getMessage());
+                }
+            }
+        };
+    }
+
+    private Iterator<UserImportRequest> csvRows(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return Collections.emptyIterator();
+        }
+        List<String> header = splitCsvLine(headerLine).stream().map(String::trim).toList();
+        if (!header.containsAll(List.of("email", "name", "phoneNumber", "password"))) {
+            throw new OurException("CSV header must contain email, name, phoneNumber and password");
+        }
+
+        return new Iterator<>() {
+            private String nextLine = advance();
+
+            private String advance() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException e) {
+                    throw new OurException("Unable to read CSV import payload: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nextLine != null;
+            }
+
+            @Override
+            public UserImportRequest next() {
+                if (nextLine == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> values = splitCsvLine(nextLine);
+                nextLine = advance();
+
+                Map<String, String> columns = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    columns.put(header.get(i), values.get(i));
+                }
+                UserImportRequest request = new UserImportRequest();
+                request.setEmail(columns.get("email"));
+                request.setName(columns.get("name"));
+                request.setPhoneNumber(columns.get("phoneNumber"));
+                request.setPassword(columns.get("password"));
+                request.setRole(columns.get("role"));
+                return request;
+            }
+        };
+    }
+
+    // Minimal RFC 4180 split: commas inside double quotes are kept, "" is an escaped quote
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static boolean isCsv(String contentType) {
+        return contentType != null && contentType.toLowerCase().startsWith("text/csv");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -2,34 +2,58 @@ package com.phegondev.PhegonHotel.service.impl;
 
 import com.phegondev.PhegonHotel.dto.LoginRequest;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
 import com.phegondev.PhegonHotel.dto.UserDTO;
 import com.phegondev.PhegonHotel.entity.User;
 import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.BookingRepository;
 import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.service.RefreshTokenService;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.TokenRevocationService;
 import com.phegondev.PhegonHotel.service.interfac.IUserService;
 import com.phegondev.PhegonHotel.utils.JWTUtils;
 import com.phegondev.PhegonHotel.utils.Utils;
+import io.jsonwebtoken.JwtException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService implements IUserService {
+
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 20;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
     @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
     private PasswordEncoder passwordEncoder;
     @Autowired
     private JWTUtils jwtUtils;
     @Autowired
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    @Autowired
+    private RoomCatalogVersion roomCatalogVersion;
 
 
     @Override
+    @Transactional
     public Response register(User user) {
         Response response = new Response();
         try {
@@ -66,8 +90,9 @@ public class UserService implements IUserService {
             var token = jwtUtils.generateToken(user);
             response.setStatusCode(200);
             response.setToken(token);
+            response.setRefreshToken(refreshTokenService.issue(user));
             response.setRole(user.getRole());
-            response.setExpirationTime("7 Days");
+            response.setExpirationTime(accessTokenLifetime());
             response.setMessage("successful");
 
         } catch (OurException e) {
@@ -83,12 +108,76 @@ public class UserService implements IUserService {
     }
 
     @Override
+    public Response refreshToken(String refreshToken) {
+
+        Response response = new Response();
+
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+            User user = rotation.user();
+            response.setStatusCode(200);
+            response.setToken(jwtUtils.generateToken(user));
+            response.setRefreshToken(rotation.refreshToken());
+            response.setRole(user.getRole());
+            response.setExpirationTime(accessTokenLifetime());
+            response.setMessage("successful");
+
+        } catch (OurException e) {
+            response.setStatusCode(401);
+            response.setMessage(e.getMessage());
+
+        } catch (Exception e) {
+
+            response.setStatusCode(500);
+            response.setMessage("Error Occurred During Token Refresh " + e.getMessage());
+        }
+        return response;
+    }
+
+    @Override
+    public Response logout(String authorizationHeader, String refreshToken) {
+
+        Response response = new Response();
+
+        try {
+            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+                throw new OurException("Missing Bearer token");
+            }
+            String token = authorizationHeader.substring(7);
+            tokenRevocationService.revoke(token, jwtUtils.extractExpiration(token));
+            if (refreshToken != null && !refreshToken.isBlank()) {
+                refreshTokenService.revoke(refreshToken);
+            }
+            response.setStatusCode(200);
+            response.setMessage("successful");
+
+        } catch (OurException e) {
+            response.setStatusCode(400);
+            response.setMessage(e.getMessage());
+
+        } catch (JwtException | IllegalArgumentException e) {
+            response.setStatusCode(400);
+            response.setMessage("Invalid token");
+
+        } catch (Exception e) {
+
+            response.setStatusCode(500);
+            response.setMessage("Error Occurred During User Logout " + e.getMessage());
+        }
+        return response;
+    }
+
+    private String accessTokenLifetime() {
+        return (jwtUtils.getAccessTokenExpirationTime() / 60_000) + " Minutes";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Response getAllUsers() {
 
         Response response = new Response();
         try {
-            List<User> userList = userRepository.findAll();
-            List<UserDTO> userDTOList = Utils.mapUserListEntityToUserListDTO(userList);
+            List<UserDTO> userDTOList = userRepository.findAllUserDTOs();
             response.setStatusCode(200);
             response.setMessage("successful");
             response.setUserList(userDTOList);
@@ -100,18 +189,49 @@ public class UserService implements IUserService {
         return response;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserDTO> action) {
+        try (Stream<UserDTO> users = userRepository.streamAllUserDTOs()) {
+            users.forEach(action);
+        }
+    }
+
     @Override
     public Response getUserBookingHistory(String userId) {
+        return getUserBookingHistory(userId, null, null);
+    }
+
+    @Override
+    public Response getUserBookingHistory(String userId, Integer page, Integer size) {
 
         Response response = new Response();
+        if ((page != null && page < 0) || (size != null && size < 1)) {
+            response.setStatusCode(400);
+            response.setMessage("page must not be negative and size must be at least 1");
+            return response;
+        }
 
 
         try {
-            User user = userRepository.findById(Long.valueOf(userId)).orElseThrow(() -> new OurException("User Not Found"));
-            UserDTO userDTO = Utils.mapUserEntityToUserDTOPlusUserBookingsAndRoom(user);
+            Long id = Long.valueOf(userId);
+            Pageable pageable = page == null && size == null
+                    ? Pageable.unpaged()
+                    : PageRequest.of(page == null ? 0 : page, size == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.min(size, MAX_HISTORY_PAGE_SIZE));
+            List<UserBookingHistoryRow> rows = userRepository.findBookingHistory(id, pageable).getContent();
+            if (rows.isEmpty()) {
+                // The left join yields a row for every existing user, so an empty result means either an unknown
+                // user or a page past the end of the history
+                if (pageable.isUnpaged()) {
+                    throw new OurException("User Not Found");
+                }
+                User user = userRepository.findById(id).orElseThrow(() -> new OurException("User Not Found"));
+                response.setUser(Utils.mapUserEntityToUserDTO(user));
+            } else {
+                response.setUser(Utils.mapBookingHistoryRowsToUserDTO(rows));
+            }
             response.setStatusCode(200);
             response.setMessage("successful");
-            response.setUser(userDTO);
 
         } catch (OurException e) {
             response.setStatusCode(404);
@@ -126,13 +246,21 @@ public class UserService implements IUserService {
     }
 
     @Override
+    @Transactional
     public Response deleteUser(String userId) {
 
         Response response = new Response();
 
         try {
-            User user = userRepository.findById(Long.valueOf(userId)).orElseThrow(() -> new OurException("User Not Found"));
-            userRepository.delete(user);
+            Long id = Long.valueOf(userId);
+            if (!userRepository.existsById(id)) {
+                throw new OurException("User Not Found");
+            }
+            // Bookings in one statement; refresh tokens and archived bookings go with the row through their foreign keys
+            bookingRepository.deleteAllByUserIdInBulk(id);
+            userRepository.deleteById(id);
+            // The guest's bookings were listed on their rooms
+            roomCatalogVersion.bump();
             response.setStatusCode(200);
             response.setMessage("successful");
 
@@ -1,7 +1,14 @@
 package com.phegondev.PhegonHotel.service.interfac;
 
+import com.phegondev.PhegonHotel.dto.BookingDTO;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.v2.BookingDetail;
+import com.phegondev.PhegonHotel.dto.v2.BookingRequest;
 import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.service.BookingOutcome;
+
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface IBookingService {
 
@@ -11,6 +18,14 @@ public interface IBookingService {
 
     Response getAllBookings();
 
+    void streamAllBookings(Consumer<BookingDTO> action);
+
     Response cancelBooking(Long bookingId);
 
+    BookingOutcome createBooking(BookingRequest request);
+
+    Optional<BookingDetail> findBookingDetail(String confirmationCode);
+
+    boolean deleteBooking(Long bookingId);
+
 }
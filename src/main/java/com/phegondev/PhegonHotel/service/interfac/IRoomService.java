@@ -1,11 +1,16 @@
 package com.phegondev.PhegonHotel.service.interfac;
 
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.v2.RoomDetail;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface IRoomService {
 
@@ -15,13 +20,23 @@ public interface IRoomService {
 
     Response getAllRooms();
 
+    void streamAllRooms(Consumer<RoomDTO> action);
+
     Response deleteRoom(Long roomId);
 
     Response updateRoom(Long roomId, String description, String roomType, BigDecimal roomPrice, MultipartFile photo);
 
     Response getRoomById(Long roomId);
 
+    Response getRoomUpload(String uploadId);
+
     Response getAvailableRoomsByDataAndType(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
 
     Response getAllAvailableRooms();
+
+    List<RoomView> getRoomViews();
+
+    Optional<RoomDetail> findRoomDetail(Long roomId);
+
+    List<RoomView> findAvailableRoomViews(LocalDate checkInDate, LocalDate checkOutDate, String roomType);
 }
@@ -0,0 +1,10 @@
+package com.phegondev.PhegonHotel.service.interfac;
+
+import com.phegondev.PhegonHotel.dto.Response;
+
+import java.io.InputStream;
+
+public interface IUserImportService {
+
+    Response importUsers(InputStream inputStream, String contentType);
+}
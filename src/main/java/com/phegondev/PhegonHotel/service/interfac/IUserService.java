@@ -2,17 +2,28 @@ package com.phegondev.PhegonHotel.service.interfac;
 
 import com.phegondev.PhegonHotel.dto.LoginRequest;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.UserDTO;
 import com.phegondev.PhegonHotel.entity.User;
 
+import java.util.function.Consumer;
+
 public interface IUserService {
     Response register(User user);
 
     Response login(LoginRequest loginRequest);
 
+    Response refreshToken(String refreshToken);
+
+    Response logout(String authorizationHeader, String refreshToken);
+
     Response getAllUsers();
 
+    void streamAllUsers(Consumer<UserDTO> action);
+
     Response getUserBookingHistory(String userId);
 
+    Response getUserBookingHistory(String userId, Integer page, Integer size);
+
     Response deleteUser(String userId);
 
     Response getUserById(String userId);
@@ -1,45 +1,138 @@
 package com.phegondev.PhegonHotel.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 @Service
 public class JWTUtils {
 
-  private static final long EXPIRATION_TIME = 1000L * 60 * 24 * 7; // for 7 days
+  public static final String ROLE_CLAIM = "role";
+  public static final String DEFAULT_KEY_ID = "default";
 
-  private final SecretKey Key;
+  private static final long DEFAULT_ACCESS_TOKEN_EXPIRATION_TIME = 1000L * 60 * 15; // for 15 minutes
 
-  public JWTUtils(@Value("${jwt.secret.key}") String secretString) {
+  private final String signingKeyId;
+  private final SecretKey signingKey;
+  // kid -> verification key; built once and never mutated, so lookups need no locking
+  private final Map<String, SecretKey> verificationKeys;
+  private final JwtParser parser;
+  private final long accessTokenExpirationTime;
+
+  public JWTUtils(String secretString) {
+    this(secretString, DEFAULT_ACCESS_TOKEN_EXPIRATION_TIME);
+  }
+
+  public JWTUtils(String secretString, long accessTokenExpirationTime) {
+    this(secretString, DEFAULT_KEY_ID, "", accessTokenExpirationTime);
+  }
+
+  /**
+   * @param secretString             base64 secret used to sign new tokens
+   * @param signingKeyId             kid written into the header of new tokens
+   * @param previousVerificationKeys comma separated {@code kid:base64secret} pairs that are still accepted for
+   *                                 verification, e.g. the key that was active before the last rotation
+   */
+  @Autowired
+  public JWTUtils(@Value("${jwt.secret.key}") String secretString,
+                  @Value("${jwt.secret.kid:" + DEFAULT_KEY_ID + "}") String signingKeyId,
+                  @Value("${jwt.secret.previous-keys:}") String previousVerificationKeys,
+                  @Value("${jwt.access-token.expiration-ms:900000}") long accessTokenExpirationTime) {
+    this.signingKeyId = signingKeyId;
+    this.signingKey = toSecretKey(secretString);
+    this.accessTokenExpirationTime = accessTokenExpirationTime;
+
+    Map<String, SecretKey> keys = new HashMap<>();
+    for (String entry : previousVerificationKeys.split(",")) {
+      if (entry.isBlank()) {
+        continue;
+      }
+      int separator = entry.indexOf(':');
+      if (separator <= 0) {
+        throw new IllegalArgumentException("jwt.secret.previous-keys entries must look like kid:secret");
+      }
+      keys.put(entry.substring(0, separator).trim(), toSecretKey(entry.substring(separator + 1).trim()));
+    }
+    keys.put(signingKeyId, signingKey);
+    this.verificationKeys = Map.copyOf(keys);
+
+    this.parser = Jwts.parser().keyLocator(new LocatorAdapter<Key>() {
+      @Override
+      protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+          // Tokens issued before key ids were introduced were signed with the current key
+          return signingKey;
+        }
+        SecretKey key = verificationKeys.get(keyId);
+        if (key == null) {
+          throw new JwtException("Unknown signing key id: " + keyId);
+        }
+        return key;
+      }
+    }).build();
+  }
+
+  private static SecretKey toSecretKey(String secretString) {
     byte[] keyBytes = Base64.getDecoder().decode(secretString.getBytes(StandardCharsets.UTF_8));
-    this.Key = new SecretKeySpec(keyBytes, "HmacSHA256");
+    return new SecretKeySpec(keyBytes, "HmacSHA256");
   }
 
   public String generateToken(UserDetails userDetails) {
+    String role = userDetails.getAuthorities().stream()
+            .findFirst()
+            .map(GrantedAuthority::getAuthority)
+            .orElse(null);
     return Jwts.builder()
+            .header().keyId(signingKeyId).and()
             .subject(userDetails.getUsername())
+            .claim(ROLE_CLAIM, role)
             .issuedAt(new Date(System.currentTimeMillis()))
-            .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-            .signWith(Key)
+            .expiration(new Date(System.currentTimeMillis() + accessTokenExpirationTime))
+            .signWith(signingKey)
             .compact();
   }
 
+  public long getAccessTokenExpirationTime() {
+    return accessTokenExpirationTime;
+  }
+
   public String extractUsername(String token) {
     return extractClaims(token, Claims::getSubject);
   }
 
+  public Date extractExpiration(String token) {
+    return extractClaims(token, Claims::getExpiration);
+  }
+
+  /**
+   * Verifies the signature and expiry once and returns every claim, so callers that need several of them
+   * do not parse the token repeatedly.
+   */
+  public Claims extractAllClaims(String token) {
+    return parser.parseSignedClaims(token).getPayload();
+  }
+
   private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-    return claimsTFunction.apply(Jwts.parser().verifyWith(Key).build().parseSignedClaims(token).getPayload());
+    return claimsTFunction.apply(extractAllClaims(token));
   }
 
   public boolean isValidToken(String token, UserDetails userDetails) {
@@ -48,6 +141,6 @@ public class JWTUtils {
   }
 
   private boolean isTokenExpired(String token) {
-    return extractClaims(token, Claims::getExpiration).before(new Date());
+    return extractExpiration(token).before(new Date());
   }
-}
\ No newline at end of file
+}
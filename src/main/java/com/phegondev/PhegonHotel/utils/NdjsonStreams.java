@@ -0,0 +1,46 @@
+package com.phegondev.PhegonHotel.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes rows as newline-delimited JSON while the source is still reading them, so neither the rows nor the
+ * rendered body are ever held in full. Output is flushed every {@link #FLUSH_EVERY} rows and at the end.
+ * <p>
+ * The status and headers are committed with the first flush; a failure after that can only cut the stream short,
+ * which clients see as a final line that is missing or incomplete.
+ */
+public class NdjsonStreams {
+
+    static final int FLUSH_EVERY = 100;
+
+    /**
+     * @param source calls the given consumer once per row, typically a service method walking a JPA stream
+     */
+    public static <T> StreamingResponseBody of(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return out -> {
+            int[] written = {0};
+            try {
+                source.accept(row -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(row));
+                        out.write('\n');
+                        if (++written[0] % FLUSH_EVERY == 0) {
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        // Usually the client going away; stop reading rows
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.phegondev.PhegonHotel.utils;
+
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.phegondev.PhegonHotel.dto.BookingDTO;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.UserDTO;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldsets for the {@code ?fields=} parameter. The room, user and booking DTOs are given a Jackson filter
+ * id, so one {@link FilterProvider} decides which of their properties are written. The {@code Response} envelope
+ * has no filter id and is always written in full.
+ */
+public class SparseFieldsets {
+
+    public static final String FILTER_ID = "fields";
+
+    private static final Set<Class<?>> FILTERED_TYPES = Set.of(RoomDTO.class, UserDTO.class, BookingDTO.class);
+
+    /**
+     * What the mapper uses when a request names no fields: every property, as if there were no filter.
+     */
+    public static FilterProvider allFields() {
+        return new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    }
+
+    /**
+     * Filters that keep only {@code fields} on the DTOs; names the DTOs do not have are simply never matched.
+     */
+    public static FilterProvider onlyFields(Set<String> fields) {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+
+    /**
+     * Splits a comma separated {@code fields} value into a sorted set, so the same selection in any order or
+     * with repeats maps to the same key.
+     */
+    public static SortedSet<String> parse(String fields) {
+        SortedSet<String> names = new TreeSet<>();
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(names::add);
+        return names;
+    }
+
+    /**
+     * Assigns {@link #FILTER_ID} to the filtered DTOs. Pair it after the mapper's own introspector so an explicit
+     * {@code @JsonFilter} still wins.
+     */
+    public static class FilterIdIntrospector extends NopAnnotationIntrospector {
+
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            if (annotated instanceof AnnotatedClass type && FILTERED_TYPES.contains(type.getRawType())) {
+                return FILTER_ID;
+            }
+            return null;
+        }
+    }
+}
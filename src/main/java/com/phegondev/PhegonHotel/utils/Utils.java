@@ -2,7 +2,11 @@ package com.phegondev.PhegonHotel.utils;
 
 import com.phegondev.PhegonHotel.dto.BookingDTO;
 import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
 import com.phegondev.PhegonHotel.dto.UserDTO;
+import com.phegondev.PhegonHotel.dto.v2.BookingView;
+import com.phegondev.PhegonHotel.dto.v2.GuestView;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
 import com.phegondev.PhegonHotel.entity.Booking;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
@@ -120,6 +124,43 @@ public class Utils {
         return userDTO;
     }
 
+    public static UserDTO mapBookingHistoryRowsToUserDTO(List<UserBookingHistoryRow> rows) {
+        UserBookingHistoryRow first = rows.get(0);
+        UserDTO userDTO = new UserDTO();
+
+        userDTO.setId(first.getUserId());
+        userDTO.setName(first.getUserName());
+        userDTO.setEmail(first.getUserEmail());
+        userDTO.setPhoneNumber(first.getUserPhoneNumber());
+        userDTO.setRole(first.getUserRole());
+
+        for (UserBookingHistoryRow row : rows) {
+            if (row.getBookingId() == null) {
+                continue;
+            }
+            BookingDTO bookingDTO = new BookingDTO();
+            bookingDTO.setId(row.getBookingId());
+            bookingDTO.setCheckInDate(row.getCheckInDate());
+            bookingDTO.setCheckOutDate(row.getCheckOutDate());
+            bookingDTO.setNumOfAdults(row.getNumOfAdults());
+            bookingDTO.setNumOfChildren(row.getNumOfChildren());
+            bookingDTO.setTotalNumOfGuest(row.getTotalNumOfGuest());
+            bookingDTO.setBookingConfirmationCode(row.getBookingConfirmationCode());
+            if (row.getRoomId() != null) {
+                RoomDTO roomDTO = new RoomDTO();
+
+                roomDTO.setId(row.getRoomId());
+                roomDTO.setRoomType(row.getRoomType());
+                roomDTO.setRoomPrice(row.getRoomPrice());
+                roomDTO.setRoomPhotoUrl(row.getRoomPhotoUrl());
+                roomDTO.setRoomDescription(row.getRoomDescription());
+                bookingDTO.setRoom(roomDTO);
+            }
+            userDTO.getBookings().add(bookingDTO);
+        }
+        return userDTO;
+    }
+
 
     public static List<UserDTO> mapUserListEntityToUserListDTO(List<User> userList) {
         return userList.stream().map(Utils::mapUserEntityToUserDTO).collect(Collectors.toList());
@@ -133,6 +174,21 @@ public class Utils {
         return bookingList.stream().map(Utils::mapBookingEntityToBookingDTO).collect(Collectors.toList());
     }
 
+    public static RoomView mapRoomEntityToRoomView(Room room) {
+        return new RoomView(room.getId(), room.getRoomType(), room.getRoomPrice(), room.getRoomPhotoUrl(),
+                room.getRoomDescription());
+    }
+
+    public static BookingView mapBookingEntityToBookingView(Booking booking) {
+        return new BookingView(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate(),
+                booking.getNumOfAdults(), booking.getNumOfChildren(), booking.getTotalNumOfGuest(),
+                booking.getBookingConfirmationCode());
+    }
+
+    public static GuestView mapUserEntityToGuestView(User user) {
+        return new GuestView(user.getId(), user.getName(), user.getEmail(), user.getPhoneNumber());
+    }
+
 
 }
 
@@ -0,0 +1,36 @@
+-- H2 counterpart of db/migration/mysql/V1__baseline_schema.sql, used by the tests and local runs.
+
+CREATE TABLE rooms (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    room_type        VARCHAR(255),
+    room_price       NUMERIC(38, 2),
+    room_photo_url   VARCHAR(255),
+    room_description VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id           BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    email        VARCHAR(255) NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    role         VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE bookings (
+    id                        BIGINT  GENERATED BY DEFAULT AS IDENTITY,
+    check_in_date             DATE    NOT NULL,
+    check_out_date            DATE,
+    num_of_adults             INTEGER NOT NULL,
+    num_of_children           INTEGER NOT NULL,
+    total_num_of_guest        INTEGER NOT NULL,
+    booking_confirmation_code VARCHAR(255),
+    user_id                   BIGINT,
+    room_id                   BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_bookings_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
@@ -0,0 +1,6 @@
+-- H2 counterpart of db/migration/mysql/V2__booking_and_lookup_indexes.sql; keep the two in step.
+
+CREATE INDEX idx_bookings_room_dates ON bookings (room_id, check_in_date, check_out_date);
+CREATE INDEX idx_bookings_user_check_in ON bookings (user_id, check_in_date);
+ALTER TABLE bookings ADD CONSTRAINT uk_bookings_confirmation_code UNIQUE (booking_confirmation_code);
+CREATE INDEX idx_rooms_room_type ON rooms (room_type);
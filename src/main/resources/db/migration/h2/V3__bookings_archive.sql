@@ -0,0 +1,20 @@
+-- H2 counterpart of db/migration/mysql/V3__bookings_archive.sql; keep the two in step.
+
+CREATE TABLE bookings_archive (
+    id                        BIGINT       NOT NULL,
+    check_in_date             DATE         NOT NULL,
+    check_out_date            DATE,
+    num_of_adults             INTEGER      NOT NULL,
+    num_of_children           INTEGER      NOT NULL,
+    total_num_of_guest        INTEGER      NOT NULL,
+    booking_confirmation_code VARCHAR(255),
+    user_id                   BIGINT,
+    room_id                   BIGINT,
+    archived_at               TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_bookings_archive_confirmation_code UNIQUE (booking_confirmation_code),
+    CONSTRAINT fk_bookings_archive_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_archive_room FOREIGN KEY (room_id) REFERENCES rooms (id) ON DELETE SET NULL
+);
+CREATE INDEX idx_bookings_archive_user_check_in ON bookings_archive (user_id, check_in_date);
+CREATE INDEX idx_bookings_check_out ON bookings (check_out_date);
@@ -0,0 +1,3 @@
+-- H2 counterpart of db/migration/mysql/V4__room_version.sql; keep the two in step.
+
+ALTER TABLE rooms ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- H2 counterpart of db/migration/mysql/V5__replica_heartbeat.sql; keep the two in step.
+
+CREATE TABLE replica_heartbeat (
+    id      INT    NOT NULL,
+    beat_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,24 @@
+-- H2 counterpart of db/migration/mysql/V6__refresh_tokens_and_id_generators.sql; keep the two in step.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'rooms', COALESCE(MAX(id), 0) + 1 FROM rooms;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'bookings', COALESCE(MAX(id), 0) + 1 FROM bookings;
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64)                 NOT NULL,
+    family_id  VARCHAR(36)                 NOT NULL,
+    user_id    BIGINT                      NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked    BOOLEAN                     NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
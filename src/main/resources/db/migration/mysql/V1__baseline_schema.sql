@@ -0,0 +1,38 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto from the Room, User and Booking entities, with
+-- AUTO_INCREMENT ids. Databases created that way already have exactly these tables and are baselined at version 1,
+-- so this script only runs against an empty schema.
+
+CREATE TABLE rooms (
+    id               BIGINT NOT NULL AUTO_INCREMENT,
+    room_type        VARCHAR(255),
+    room_price       DECIMAL(38, 2),
+    room_photo_url   VARCHAR(255),
+    room_description VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE users (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    email        VARCHAR(255) NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    role         VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE bookings (
+    id                        BIGINT  NOT NULL AUTO_INCREMENT,
+    check_in_date             DATE    NOT NULL,
+    check_out_date            DATE,
+    num_of_adults             INTEGER NOT NULL,
+    num_of_children           INTEGER NOT NULL,
+    total_num_of_guest        INTEGER NOT NULL,
+    booking_confirmation_code VARCHAR(255),
+    user_id                   BIGINT,
+    room_id                   BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_bookings_room FOREIGN KEY (room_id) REFERENCES rooms (id)
+) ENGINE = InnoDB;
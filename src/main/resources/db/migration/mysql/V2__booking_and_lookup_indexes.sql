@@ -0,0 +1,15 @@
+-- Secondary indexes for the repository query paths. Each statement names the queries it serves.
+
+-- Availability search: bookings of a room overlapping a date range (RoomRepository.findAvailableRoomsByDatesAndTypes,
+-- getAllAvailableRooms). Also serves the room_id foreign key.
+CREATE INDEX idx_bookings_room_dates ON bookings (room_id, check_in_date, check_out_date);
+
+-- Booking history of one guest, newest stay first (UserRepository.findBookingHistory). Also serves the user_id
+-- foreign key, e.g. when a user and their bookings are deleted.
+CREATE INDEX idx_bookings_user_check_in ON bookings (user_id, check_in_date);
+
+-- Confirmation code lookup (BookingRepository.findByBookingConfirmationCode); codes must never repeat.
+ALTER TABLE bookings ADD CONSTRAINT uk_bookings_confirmation_code UNIQUE (booking_confirmation_code);
+
+-- Distinct room types for the search form (RoomRepository.findDistinctRoomTypes).
+CREATE INDEX idx_rooms_room_type ON rooms (room_type);
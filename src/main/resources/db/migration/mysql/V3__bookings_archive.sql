@@ -0,0 +1,26 @@
+-- Cold storage for bookings whose stay ended before the retention horizon (see BookingArchivalService).
+-- Rows keep their original id, so a booking has the same id wherever it lives. Deleting a user removes their
+-- archived stays as well; deleting a room keeps the stays but drops the room reference.
+
+CREATE TABLE bookings_archive (
+    id                        BIGINT      NOT NULL,
+    check_in_date             DATE        NOT NULL,
+    check_out_date            DATE,
+    num_of_adults             INTEGER     NOT NULL,
+    num_of_children           INTEGER     NOT NULL,
+    total_num_of_guest        INTEGER     NOT NULL,
+    booking_confirmation_code VARCHAR(255),
+    user_id                   BIGINT,
+    room_id                   BIGINT,
+    archived_at               DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_bookings_archive_confirmation_code UNIQUE (booking_confirmation_code),
+    CONSTRAINT fk_bookings_archive_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_archive_room FOREIGN KEY (room_id) REFERENCES rooms (id) ON DELETE SET NULL
+) ENGINE = InnoDB;
+
+-- Booking history reads both tables by guest, newest stay first (UserRepository.findBookingHistory).
+CREATE INDEX idx_bookings_archive_user_check_in ON bookings_archive (user_id, check_in_date);
+
+-- The archival job picks finished stays from the hot table by check-out date.
+CREATE INDEX idx_bookings_check_out ON bookings (check_out_date);
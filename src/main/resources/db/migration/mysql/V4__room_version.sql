@@ -0,0 +1,3 @@
+-- Optimistic lock column for Room. Every booking write bumps it (BookingService.saveBooking), so two overlapping
+-- bookings for the same room cannot both commit after checking availability against the same state.
+ALTER TABLE rooms ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
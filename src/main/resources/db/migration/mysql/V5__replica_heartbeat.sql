@@ -0,0 +1,7 @@
+-- Single-row heartbeat that ReplicaLagMonitor writes on the primary and reads back from the replica; the difference
+-- between the two values is the replication lag. The monitor inserts the row on its first check.
+CREATE TABLE replica_heartbeat (
+    id      INT    NOT NULL,
+    beat_at BIGINT NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
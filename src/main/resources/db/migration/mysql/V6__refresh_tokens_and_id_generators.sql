@@ -0,0 +1,30 @@
+-- Tables added alongside the version 1 schema: refresh tokens (RefreshTokenService) and the pooled-lo id generator
+-- for rooms, users and bookings. An existing database keeps its AUTO_INCREMENT ids; each generator starts after the
+-- highest id already in its table, so the first block handed out cannot collide with existing rows. Hibernate
+-- always supplies the id, so the AUTO_INCREMENT attribute can stay.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+) ENGINE = InnoDB;
+
+-- pooled-lo hands out [next_val, next_val + 50) and then advances next_val by 50
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'rooms', COALESCE(MAX(id), 0) + 1 FROM rooms;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users;
+INSERT INTO id_generators (sequence_name, next_val) SELECT 'bookings', COALESCE(MAX(id), 0) + 1 FROM bookings;
+
+CREATE TABLE refresh_tokens (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id  VARCHAR(36) NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked    BIT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Revoking a whole token family on reuse (RefreshTokenRepository.revokeFamily).
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
@@ -0,0 +1,123 @@
+package com.phegondev.PhegonHotel.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.phegondev.PhegonHotel.dto.BookingDTO;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size and encode/decode time of a {@code roomList} and a {@code bookingList} response in JSON, CBOR and
+ * Smile, using mappers configured like the application's (ISO dates, Java time module).
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}; it is excluded from the default build.
+ */
+@Tag("benchmark")
+public class BinaryFormatBenchmark {
+
+  private static final int ROOMS = 500;
+  private static final int BOOKINGS = 5_000;
+  private static final int WARMUP_ITERATIONS = 200;
+  private static final int MEASURED_ITERATIONS = 500;
+
+  private record Measurement(int bytes, double encodeMicros, double decodeMicros) {
+  }
+
+  @Test
+  public void benchmarkBinaryFormats() throws Exception {
+    compare("roomList", roomList());
+    compare("bookingList", bookingList());
+  }
+
+  private void compare(String name, Response response) throws Exception {
+    Measurement json = measure(mapper(new JsonFactory()), response);
+    Measurement cbor = measure(mapper(new CBORFactory()), response);
+    Measurement smile = measure(mapper(new SmileFactory()), response);
+
+    System.out.printf("%s%n", name);
+    print("json", json, json);
+    print("cbor", cbor, json);
+    print("smile", smile, json);
+
+    assertTrue(cbor.bytes() < json.bytes(), name + " CBOR should be smaller than JSON");
+    assertTrue(smile.bytes() < json.bytes(), name + " Smile should be smaller than JSON");
+  }
+
+  private Measurement measure(ObjectMapper mapper, Response response) throws Exception {
+    byte[] encoded = mapper.writeValueAsBytes(response);
+    assertEquals(response, mapper.readValue(encoded, Response.class));
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      mapper.readValue(mapper.writeValueAsBytes(response), Response.class);
+    }
+
+    long encodeNanos = 0;
+    long decodeNanos = 0;
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      long start = System.nanoTime();
+      byte[] bytes = mapper.writeValueAsBytes(response);
+      long encodedAt = System.nanoTime();
+      mapper.readValue(bytes, Response.class);
+      decodeNanos += System.nanoTime() - encodedAt;
+      encodeNanos += encodedAt - start;
+    }
+    return new Measurement(encoded.length,
+            encodeNanos / 1_000.0 / MEASURED_ITERATIONS, decodeNanos / 1_000.0 / MEASURED_ITERATIONS);
+  }
+
+  private static void print(String format, Measurement measurement, Measurement json) {
+    System.out.printf("  %-6s %,10d B (%3.0f%% of JSON) | encode %8.1f us | decode %8.1f us%n",
+            format, measurement.bytes(), 100.0 * measurement.bytes() / json.bytes(),
+            measurement.encodeMicros(), measurement.decodeMicros());
+  }
+
+  private static ObjectMapper mapper(JsonFactory factory) {
+    return new ObjectMapper(factory)
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+  }
+
+  private static Response roomList() {
+    List<RoomDTO> rooms = new ArrayList<>();
+    for (int i = 0; i < ROOMS; i++) {
+      rooms.add(new RoomDTO((long) i, i % 2 == 0 ? "DELUXE" : "STANDARD", new BigDecimal("120.00"),
+              "https://example.com/rooms/room-" + i + ".jpg", "Benchmark room " + i + " with a garden view"));
+    }
+    Response response = new Response();
+    response.setStatusCode(200);
+    response.setMessage("successful");
+    response.setRoomList(rooms);
+    return response;
+  }
+
+  private static Response bookingList() {
+    List<BookingDTO> bookings = new ArrayList<>();
+    LocalDate today = LocalDate.of(2030, 1, 1);
+    for (int i = 0; i < BOOKINGS; i++) {
+      BookingDTO booking = new BookingDTO();
+      booking.setId((long) i);
+      booking.setCheckInDate(today.plusDays(i % 365));
+      booking.setCheckOutDate(today.plusDays(i % 365 + 2));
+      booking.setNumOfAdults(2);
+      booking.setTotalNumOfGuest(2);
+      booking.setBookingConfirmationCode("BENCH" + i);
+      bookings.add(booking);
+    }
+    Response response = new Response();
+    response.setStatusCode(200);
+    response.setMessage("successful");
+    response.setBookingList(bookings);
+    return response;
+  }
+}
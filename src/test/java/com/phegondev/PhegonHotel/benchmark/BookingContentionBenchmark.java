@@ -0,0 +1,206 @@
+package com.phegondev.PhegonHotel.benchmark;
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.repo.BookingRepository;
+import com.phegondev.PhegonHotel.repo.RepositoryTestConfig;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.security.MetricsConfig;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
+import com.phegondev.PhegonHotel.service.impl.BookingService;
+import com.phegondev.PhegonHotel.service.impl.RoomService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many guests racing to book the same room for the same dates, with and without the room version check in
+ * {@link BookingService#saveBooking}. Every round uses a fresh room so the availability check does the same
+ * work in both runs; the unguarded run shows how many double bookings slip through, the guarded one what the
+ * retries cost.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}; it is excluded from the default build.
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:contentionbenchmarkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, MetricsConfig.class,
+        BookingService.class, RoomService.class, RoomCatalogVersion.class,
+        RoomPhotoUploads.class})
+public class BookingContentionBenchmark {
+
+  private static final int THREADS = 8;
+  private static final int ROUNDS = 200;
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Test
+  public void benchmarkOverlappingBookings() throws Exception {
+    List<User> guests = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      User guest = new User();
+      guest.setEmail("racer" + i + "@example.com");
+      guest.setName("Racer " + i);
+      guest.setPhoneNumber("070000000" + i);
+      guest.setPassword("password");
+      guest.setRole("USER");
+      guests.add(userRepository.save(guest));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      // Warm up the JIT and the pool
+      race(executor, guests, 20, true);
+
+      Result unguarded = race(executor, guests, ROUNDS, false);
+      Result guarded = race(executor, guests, ROUNDS, true);
+
+      System.out.printf("overlapping bookings (%d threads x %d rooms)%n", THREADS, ROUNDS);
+      unguarded.print("unguarded");
+      guarded.print("versioned");
+
+      assertEquals(ROUNDS, guarded.bookings, "the version check must admit exactly one booking per room");
+    } finally {
+      executor.shutdownNow();
+      setOptimisticLocking(true);
+      jdbcTemplate.update("DELETE FROM bookings");
+      jdbcTemplate.update("DELETE FROM users");
+      jdbcTemplate.update("DELETE FROM rooms");
+    }
+  }
+
+  private Result race(ExecutorService executor, List<User> guests, int rounds, boolean optimisticLocking) throws Exception {
+    setOptimisticLocking(optimisticLocking);
+    LocalDate checkIn = LocalDate.now().plusDays(30);
+    Result result = new Result(rounds);
+    long bookingsBefore = bookingRepository.count();
+
+    long start = System.nanoTime();
+    for (int round = 0; round < rounds; round++) {
+      Room room = new Room();
+      room.setRoomType("CONTENDED");
+      room.setRoomPrice(new BigDecimal("100.00"));
+      Long roomId = roomRepository.save(room).getId();
+
+      CyclicBarrier barrier = new CyclicBarrier(THREADS);
+      List<Future<long[]>> attempts = new ArrayList<>();
+      for (User guest : guests) {
+        attempts.add(executor.submit(() -> {
+          barrier.await();
+          long attemptStart = System.nanoTime();
+          Response response = bookingService.saveBooking(roomId, guest.getId(), request(checkIn));
+          return new long[]{response.getStatusCode(), System.nanoTime() - attemptStart};
+        }));
+      }
+      for (Future<long[]> attempt : attempts) {
+        long[] outcome = attempt.get();
+        result.record((int) outcome[0], outcome[1]);
+      }
+    }
+    result.elapsedNanos = System.nanoTime() - start;
+    result.bookings = bookingRepository.count() - bookingsBefore;
+    return result;
+  }
+
+  private void setOptimisticLocking(boolean enabled) {
+    BookingService target = AopTestUtils.getTargetObject(bookingService);
+    ReflectionTestUtils.setField(target, "optimisticLockingEnabled", enabled);
+  }
+
+  private static Booking request(LocalDate checkIn) {
+    Booking booking = new Booking();
+    booking.setCheckInDate(checkIn);
+    booking.setCheckOutDate(checkIn.plusDays(2));
+    booking.setNumOfAdults(1);
+    booking.setTotalNumOfGuest(1);
+    return booking;
+  }
+
+  private static class Result {
+    private final long[] latencies;
+    private final int rounds;
+    private int recorded;
+    private int conflicts;
+    private long elapsedNanos;
+    private long bookings;
+
+    Result(int rounds) {
+      this.rounds = rounds;
+      this.latencies = new long[rounds * THREADS];
+    }
+
+    synchronized void record(int status, long nanos) {
+      latencies[recorded++] = nanos;
+      conflicts += status == 409 ? 1 : 0;
+    }
+
+    void print(String label) {
+      long[] sorted = Arrays.copyOf(latencies, recorded);
+      Arrays.sort(sorted);
+      System.out.printf("  %-10s %,8.0f requests/s | p50 %6.2f ms | p99 %6.2f ms | bookings %4d for %d rooms "
+                      + "(%d double) | 409s %d%n",
+              label, recorded / (elapsedNanos / 1e9),
+              sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+              bookings, rounds, bookings - rounds, conflicts);
+    }
+  }
+}
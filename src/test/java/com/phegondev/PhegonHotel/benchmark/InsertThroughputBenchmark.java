@@ -0,0 +1,111 @@
+package com.phegondev.PhegonHotel.benchmark;
+
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.repo.RepositoryTestConfig;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Insert throughput of users through the repository, with Hibernate JDBC batching switched off and on.
+ * Ids come from the pooled-lo table generator in both runs, so only the batching differs.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}; it is excluded from the default build.
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:insertbenchmarkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import(RepositoryTestConfig.class)
+public class InsertThroughputBenchmark {
+
+  private static final int ROWS = 10_000;
+  private static final int CHUNK_SIZE = 500;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Test
+  public void benchmarkUserInserts() {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    Session session = entityManager.unwrap(Session.class);
+
+    // Warm up the generator, the statement cache and the JIT
+    insertUsers("warmup", 2_000);
+
+    session.setJdbcBatchSize(1);
+    statistics.clear();
+    long unbatchedNanos = insertUsers("unbatched", ROWS);
+    long unbatchedStatements = statistics.getPrepareStatementCount();
+
+    session.setJdbcBatchSize(null);
+    statistics.clear();
+    long batchedNanos = insertUsers("batched", ROWS);
+    long batchedStatements = statistics.getPrepareStatementCount();
+
+    System.out.printf("user inserts  unbatched: %,10.0f rows/s (%,d statements) | batched: %,10.0f rows/s (%,d statements)%n",
+            ROWS / (unbatchedNanos / 1e9), unbatchedStatements, ROWS / (batchedNanos / 1e9), batchedStatements);
+
+    assertEquals(2_000 + 2L * ROWS, userRepository.count());
+  }
+
+  private long insertUsers(String prefix, int rows) {
+    long start = System.nanoTime();
+    List<User> chunk = new ArrayList<>(CHUNK_SIZE);
+    for (int i = 0; i < rows; i++) {
+      User user = new User();
+      user.setEmail(prefix + i + "@example.com");
+      user.setName("Bench User " + i);
+      user.setPhoneNumber("0700000000");
+      user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+      user.setRole("USER");
+      chunk.add(user);
+      if (chunk.size() == CHUNK_SIZE || i == rows - 1) {
+        userRepository.saveAllAndFlush(chunk);
+        entityManager.clear();
+        chunk.clear();
+      }
+    }
+    return System.nanoTime() - start;
+  }
+}
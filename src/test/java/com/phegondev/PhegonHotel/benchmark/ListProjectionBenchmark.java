@@ -0,0 +1,175 @@
+package com.phegondev.PhegonHotel.benchmark;
+
+import com.phegondev.PhegonHotel.dto.BookingDTO;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.UserDTO;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.repo.BookingRepository;
+import com.phegondev.PhegonHotel.repo.RepositoryTestConfig;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.utils.Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the list endpoints' old path (managed entities mapped through {@link Utils}) with the
+ * constructor-expression projections, in bytes allocated and wall time per call.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}; it is excluded from the default build.
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import(RepositoryTestConfig.class)
+public class ListProjectionBenchmark {
+
+  private static final int ROOMS = 200;
+  private static final int USERS = 1_000;
+  private static final int BOOKINGS = 5_000;
+  private static final int WARMUP_ITERATIONS = 5;
+  private static final int MEASURED_ITERATIONS = 20;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  private final com.sun.management.ThreadMXBean threadMXBean =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private record Measurement(long bytesPerCall, double millisPerCall) {
+  }
+
+  @BeforeEach
+  public void seed() {
+    Room[] rooms = new Room[ROOMS];
+    for (int i = 0; i < ROOMS; i++) {
+      Room room = new Room();
+      room.setRoomType(i % 2 == 0 ? "DELUXE" : "STANDARD");
+      room.setRoomPrice(new BigDecimal("120.00"));
+      room.setRoomPhotoUrl("https://example.com/room-" + i + ".jpg");
+      room.setRoomDescription("Benchmark room " + i);
+      rooms[i] = entityManager.persist(room);
+    }
+    User[] users = new User[USERS];
+    for (int i = 0; i < USERS; i++) {
+      User user = new User();
+      user.setEmail("bench" + i + "@example.com");
+      user.setName("Bench User " + i);
+      user.setPhoneNumber("0700000000");
+      user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+      user.setRole("USER");
+      users[i] = entityManager.persist(user);
+    }
+    for (int i = 0; i < BOOKINGS; i++) {
+      Booking booking = new Booking();
+      booking.setCheckInDate(LocalDate.now().plusDays(i % 365));
+      booking.setCheckOutDate(LocalDate.now().plusDays(i % 365 + 2));
+      booking.setNumOfAdults(2);
+      booking.setNumOfChildren(0);
+      booking.setTotalNumOfGuest(2);
+      booking.setBookingConfirmationCode("BENCH" + i);
+      booking.setRoom(rooms[i % ROOMS]);
+      booking.setUser(users[i % USERS]);
+      entityManager.persist(booking);
+      if (i % 500 == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  public void benchmarkListEndpoints() {
+    compare("rooms",
+            () -> Utils.mapRoomListEntityToRoomListDTO(roomRepository.findAll(Sort.by(Sort.Direction.DESC, "id"))),
+            () -> roomRepository.findAllRoomDTOs(), ROOMS);
+    compare("users",
+            () -> Utils.mapUserListEntityToUserListDTO(userRepository.findAll()),
+            () -> userRepository.findAllUserDTOs(), USERS);
+    compare("bookings",
+            () -> Utils.mapBookingListEntityToBookingListDTO(bookingRepository.findAll(Sort.by(Sort.Direction.DESC, "id"))),
+            () -> bookingRepository.findAllBookingDTOs(), BOOKINGS);
+  }
+
+  private void compare(String name, Supplier<List<?>> entityPath, Supplier<List<?>> projectionPath, int expectedSize) {
+    Measurement entities = measure(entityPath, expectedSize);
+    Measurement projection = measure(projectionPath, expectedSize);
+
+    System.out.printf("%-8s entities+Utils: %,12d B/call %8.2f ms/call | projection: %,12d B/call %8.2f ms/call (%.1fx less heap)%n",
+            name, entities.bytesPerCall(), entities.millisPerCall(),
+            projection.bytesPerCall(), projection.millisPerCall(),
+            (double) entities.bytesPerCall() / projection.bytesPerCall());
+
+    assertTrue(projection.bytesPerCall() < entities.bytesPerCall(),
+            name + " projection should allocate less than loading entities");
+  }
+
+  private Measurement measure(Supplier<List<?>> call, int expectedSize) {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      assertEquals(expectedSize, call.get().size());
+      entityManager.clear();
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long bytes = 0;
+    long nanos = 0;
+    for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+      long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+      long start = System.nanoTime();
+      call.get();
+      nanos += System.nanoTime() - start;
+      bytes += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+      // Each request gets a fresh persistence context, so nothing is reused between calls
+      entityManager.clear();
+    }
+    return new Measurement(bytes / MEASURED_ITERATIONS, nanos / 1_000_000.0 / MEASURED_ITERATIONS);
+  }
+}
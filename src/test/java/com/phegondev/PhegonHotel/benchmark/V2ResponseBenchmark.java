@@ -0,0 +1,205 @@
+package com.phegondev.PhegonHotel.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.v2.BookingDetail;
+import com.phegondev.PhegonHotel.dto.v2.RoomDetail;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.repo.BookingRepository;
+import com.phegondev.PhegonHotel.repo.RepositoryTestConfig;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import com.phegondev.PhegonHotel.security.JacksonConfig;
+import com.phegondev.PhegonHotel.utils.Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares what a v1 and a v2 read costs from query to bytes: the v1 path the services take (entities or DTOs
+ * mapped through {@link Utils} into a {@link Response}) against the v2 records, serialized with a mapper configured
+ * like the application's. Reports bytes allocated, wall time and body size per call.
+ * <p>
+ * Run with {@code mvn test -Pbenchmark}; it is excluded from the default build.
+ */
+@Tag("benchmark")
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import(RepositoryTestConfig.class)
+public class V2ResponseBenchmark {
+
+  private static final int ROOMS = 200;
+  private static final int USERS = 200;
+  private static final int BOOKINGS_PER_ROOM = 25;
+  private static final int WARMUP_ITERATIONS = 20;
+  private static final int MEASURED_ITERATIONS = 100;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  private final com.sun.management.ThreadMXBean threadMXBean =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private ObjectMapper objectMapper;
+  private Long roomId;
+
+  private record Measurement(long bytesPerCall, double microsPerCall, int bodyBytes) {
+  }
+
+  @BeforeEach
+  public void seed() {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    new JacksonConfig().sparseFieldsetCustomizer().customize(builder);
+    objectMapper = builder.build();
+
+    User[] users = new User[USERS];
+    for (int i = 0; i < USERS; i++) {
+      User user = new User();
+      user.setEmail("bench" + i + "@example.com");
+      user.setName("Bench User " + i);
+      user.setPhoneNumber("0700000000");
+      user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+      user.setRole("USER");
+      users[i] = entityManager.persist(user);
+    }
+    for (int i = 0; i < ROOMS; i++) {
+      Room room = new Room();
+      room.setRoomType(i % 2 == 0 ? "DELUXE" : "STANDARD");
+      room.setRoomPrice(new BigDecimal("120.00"));
+      room.setRoomPhotoUrl("https://example.com/rooms/room-" + i + ".jpg");
+      room.setRoomDescription("Benchmark room " + i + " with a garden view");
+      room = entityManager.persist(room);
+      roomId = room.getId();
+      for (int j = 0; j < BOOKINGS_PER_ROOM; j++) {
+        Booking booking = new Booking();
+        booking.setCheckInDate(LocalDate.now().plusDays(j * 3L));
+        booking.setCheckOutDate(LocalDate.now().plusDays(j * 3L + 2));
+        booking.setNumOfAdults(2);
+        booking.setBookingConfirmationCode("BENCH" + i + "X" + j);
+        booking.setRoom(room);
+        booking.setUser(users[(i + j) % USERS]);
+        entityManager.persist(booking);
+      }
+      entityManager.flush();
+      entityManager.clear();
+    }
+  }
+
+  @Test
+  public void benchmarkV1AgainstV2() {
+    compare("room list",
+            () -> {
+              Response response = new Response();
+              response.setStatusCode(200);
+              response.setMessage("successful");
+              response.setRoomList(roomRepository.findAllRoomDTOs());
+              return response;
+            },
+            () -> roomRepository.findAllRoomViews());
+    compare("room detail",
+            () -> {
+              Response response = new Response();
+              response.setStatusCode(200);
+              response.setMessage("successful");
+              response.setRoom(Utils.mapRoomEntityToRoomDTOPlusBookings(roomRepository.findById(roomId).orElseThrow()));
+              return response;
+            },
+            () -> {
+              Room room = roomRepository.findById(roomId).orElseThrow();
+              return new RoomDetail(Utils.mapRoomEntityToRoomView(room), bookingRepository.findBookingViewsByRoomId(roomId));
+            });
+    compare("booking",
+            () -> {
+              Response response = new Response();
+              response.setStatusCode(200);
+              response.setMessage("successful");
+              response.setBooking(Utils.mapBookingEntityToBookingDTOPlusBookedRooms(
+                      bookingRepository.findByBookingConfirmationCode("BENCH7X3").orElseThrow(), true));
+              return response;
+            },
+            () -> {
+              Booking booking = bookingRepository.findByBookingConfirmationCode("BENCH7X3").orElseThrow();
+              return new BookingDetail(Utils.mapBookingEntityToBookingView(booking),
+                      Utils.mapRoomEntityToRoomView(booking.getRoom()), Utils.mapUserEntityToGuestView(booking.getUser()));
+            });
+  }
+
+  private void compare(String name, Callable<Object> v1, Callable<Object> v2) {
+    Measurement before = measure(v1);
+    Measurement after = measure(v2);
+
+    System.out.printf("%-12s v1: %,10d B/call %8.1f us/call %,8d B body | v2: %,10d B/call %8.1f us/call %,8d B body%n",
+            name, before.bytesPerCall(), before.microsPerCall(), before.bodyBytes(),
+            after.bytesPerCall(), after.microsPerCall(), after.bodyBytes());
+
+    assertTrue(after.bodyBytes() < before.bodyBytes(), name + " v2 body should be smaller than v1");
+  }
+
+  private Measurement measure(Callable<Object> read) {
+    int body = 0;
+    try {
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        body = objectMapper.writeValueAsBytes(read.call()).length;
+        entityManager.clear();
+      }
+
+      long threadId = Thread.currentThread().getId();
+      long bytes = 0;
+      long nanos = 0;
+      for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        objectMapper.writeValueAsBytes(read.call());
+        nanos += System.nanoTime() - start;
+        bytes += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        // Each request gets a fresh persistence context, so nothing is reused between calls
+        entityManager.clear();
+      }
+      return new Measurement(bytes / MEASURED_ITERATIONS, nanos / 1_000.0 / MEASURED_ITERATIONS, body);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package com.phegondev.PhegonHotel.benchmark;
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.repo.RepositoryTestConfig;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
+import com.phegondev.PhegonHotel.service.impl.RoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A burst of room searches, each followed by a 20 ms wait standing in for an S3 round trip, served by Tomcat's
+ * default 200 platform threads and by one virtual thread per request. Latency is measured from submission, so
+ * time spent queued for a platform thread counts, as it does for a real client. Both runs share a 50-connection
+ * pool, which is what bounds the virtual thread run.
+ * <p>
+ * Needs Java 21; run with {@code mvn test -Pbenchmark}, it is excluded from the default build.
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:virtualthreadbenchmarkdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=50",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, RoomService.class, RoomCatalogVersion.class,
+        RoomPhotoUploads.class})
+public class VirtualThreadBenchmark {
+
+  private static final int PLATFORM_THREADS = 200;
+  private static final int REQUESTS = 4_000;
+  private static final long REMOTE_CALL_MS = 20;
+
+  @Autowired
+  private RoomService roomService;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  public void seed() {
+    List<Room> rooms = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Room room = new Room();
+      room.setRoomType(i % 2 == 0 ? "DELUXE" : "STANDARD");
+      room.setRoomPrice(new BigDecimal("120.00"));
+      rooms.add(room);
+    }
+    roomRepository.saveAll(rooms);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    jdbcTemplate.update("DELETE FROM rooms");
+  }
+
+  @Test
+  public void benchmarkPlatformAgainstVirtualThreads() throws Exception {
+    // Warm up the JIT and the pool
+    run(Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS / 4);
+    run(newVirtualThreadPerTaskExecutor(), REQUESTS / 4);
+
+    Result platform = run(Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS);
+    Result virtual = run(newVirtualThreadPerTaskExecutor(), REQUESTS);
+
+    System.out.printf("room search + %d ms remote call, %d requests in one burst%n", REMOTE_CALL_MS, REQUESTS);
+    platform.print("platform (" + PLATFORM_THREADS + ")");
+    virtual.print("virtual");
+
+    assertEquals(0, platform.failures);
+    assertEquals(0, virtual.failures);
+  }
+
+  private Result run(ExecutorService executor, int requests) throws Exception {
+    LocalDate checkIn = LocalDate.now().plusDays(10);
+    List<Future<Long>> calls = new ArrayList<>(requests);
+    Result result = new Result(requests);
+
+    long start = System.nanoTime();
+    try {
+      for (int i = 0; i < requests; i++) {
+        long submitted = System.nanoTime();
+        calls.add(executor.submit(() -> {
+          Response response = roomService.getAvailableRoomsByDataAndType(checkIn, checkIn.plusDays(2), "DELUXE");
+          Thread.sleep(REMOTE_CALL_MS);
+          return response.getStatusCode() == 200 ? System.nanoTime() - submitted : -1L;
+        }));
+      }
+      for (int i = 0; i < requests; i++) {
+        result.latencies[i] = calls.get(i).get();
+        result.failures += result.latencies[i] < 0 ? 1 : 0;
+      }
+    } finally {
+      executor.shutdown();
+    }
+    result.elapsedNanos = System.nanoTime() - start;
+    return result;
+  }
+
+  // The test sources target Java 17, where the factory method does not exist at compile time
+  private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+  }
+
+  private static class Result {
+    private final long[] latencies;
+    private long elapsedNanos;
+    private int failures;
+
+    Result(int requests) {
+      this.latencies = new long[requests];
+    }
+
+    void print(String label) {
+      long[] sorted = latencies.clone();
+      Arrays.sort(sorted);
+      System.out.printf("  %-16s %,8.0f requests/s | p50 %7.2f ms | p99 %7.2f ms%n",
+              label, latencies.length / (elapsedNanos / 1e9),
+              sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6);
+    }
+  }
+}
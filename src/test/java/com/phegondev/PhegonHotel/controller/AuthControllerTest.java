@@ -147,6 +147,75 @@ public class AuthControllerTest {
     verify(userService, times(1)).login(any(LoginRequest.class));
   }
 
+  @Test
+  public void testRefresh_Success() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setToken("new-access");
+    mockResponse.setRefreshToken("new-refresh");
+
+    when(userService.refreshToken("old-refresh")).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/auth/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"refreshToken\":\"old-refresh\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").value("new-access"))
+            .andExpect(jsonPath("$.refreshToken").value("new-refresh"));
+  }
+
+  @Test
+  public void testRefresh_ReuseDetected() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(401);
+    mockResponse.setMessage("Refresh token reuse detected");
+
+    when(userService.refreshToken("used-refresh")).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/auth/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"refreshToken\":\"used-refresh\"}"))
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.message").value("Refresh token reuse detected"));
+  }
+
+  @Test
+  public void testLogout_Success() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setMessage("successful");
+
+    when(userService.logout("Bearer jwt-token-here", null)).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/auth/logout")
+                    .header("Authorization", "Bearer jwt-token-here"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message").value("successful"));
+
+    verify(userService, times(1)).logout("Bearer jwt-token-here", null);
+  }
+
+  @Test
+  public void testLogout_MissingHeader() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(400);
+    mockResponse.setMessage("Missing Bearer token");
+
+    when(userService.logout(null, null)).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/auth/logout"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Missing Bearer token"));
+  }
+
   @Test
   public void testHello() throws Exception {
     // Simple test for the hello endpoint
@@ -0,0 +1,177 @@
+package com.phegondev.PhegonHotel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.phegondev.PhegonHotel.dto.BookingDTO;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.security.JacksonConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class BinaryContentNegotiationTest {
+
+  private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+  private MockMvc mockMvc;
+
+  private final ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+
+  private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+
+  @BeforeEach
+  public void setup() {
+    // Converters built the way the application builds them, JSON first as in Spring MVC's defaults
+    JacksonConfig jacksonConfig = new JacksonConfig();
+    mockMvc = MockMvcBuilders
+            .standaloneSetup(new ListsController())
+            .setControllerAdvice(new SparseFieldsetAdvice())
+            .setMessageConverters(
+                    new MappingJackson2HttpMessageConverter(customizedBuilder(jacksonConfig).build()),
+                    jacksonConfig.cborHttpMessageConverter(customizedBuilder(jacksonConfig)),
+                    jacksonConfig.smileHttpMessageConverter(customizedBuilder(jacksonConfig)))
+            .build();
+  }
+
+  @Test
+  public void testJsonStaysTheDefault() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/rooms"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(jsonPath("$.roomList[0].roomType").value("Deluxe"));
+  }
+
+  @Test
+  public void testCborCarriesTheSameModel() throws Exception {
+    // Act
+    byte[] body = mockMvc.perform(get("/rooms").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+
+    // Assert
+    Response response = cborMapper.readValue(body, Response.class);
+    assertEquals(200, response.getStatusCode());
+    assertEquals(roomsResponse().getRoomList(), response.getRoomList());
+  }
+
+  @Test
+  public void testSmileCarriesTheSameModel() throws Exception {
+    // Act
+    byte[] body = mockMvc.perform(get("/bookings").accept(SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(SMILE))
+            .andReturn().getResponse().getContentAsByteArray();
+
+    // Assert
+    Response response = smileMapper.readValue(body, Response.class);
+    assertEquals(bookingsResponse().getBookingList(), response.getBookingList());
+  }
+
+  @Test
+  public void testBinaryRequestBodiesAreRead() throws Exception {
+    // Arrange
+    byte[] booking = cborMapper.writeValueAsBytes(booking(3L));
+
+    // Act & Assert - the echo comes back as JSON because that is what was asked for
+    mockMvc.perform(post("/bookings/echo")
+                    .contentType(MediaType.APPLICATION_CBOR)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .content(booking))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.bookingConfirmationCode").value("CODE3"))
+            .andExpect(jsonPath("$.checkInDate").exists());
+  }
+
+  @Test
+  public void testFieldsApplyToBinaryFormats() throws Exception {
+    // Act
+    byte[] body = mockMvc.perform(get("/rooms").param("fields", "id,roomPrice").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsByteArray();
+
+    // Assert
+    RoomDTO room = cborMapper.readValue(body, Response.class).getRoomList().get(0);
+    assertEquals(1L, room.getId());
+    assertNotNull(room.getRoomPrice());
+    assertNull(room.getRoomType());
+    assertNull(room.getRoomDescription());
+  }
+
+  private static Jackson2ObjectMapperBuilder customizedBuilder(JacksonConfig jacksonConfig) {
+    Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+    jacksonConfig.sparseFieldsetCustomizer().customize(builder);
+    return builder;
+  }
+
+  private static BookingDTO booking(long id) {
+    BookingDTO booking = new BookingDTO();
+    booking.setId(id);
+    booking.setCheckInDate(LocalDate.of(2030, 1, 10));
+    booking.setCheckOutDate(LocalDate.of(2030, 1, 12));
+    booking.setNumOfAdults(2);
+    booking.setTotalNumOfGuest(2);
+    booking.setBookingConfirmationCode("CODE" + id);
+    return booking;
+  }
+
+  private static Response roomsResponse() {
+    Response response = new Response();
+    response.setStatusCode(200);
+    response.setMessage("successful");
+    response.setRoomList(List.of(
+            new RoomDTO(1L, "Deluxe", new BigDecimal("150.00"), "https://example.com/1.jpg", "Sea view"),
+            new RoomDTO(2L, "Suite", new BigDecimal("320.00"), "https://example.com/2.jpg", "Top floor")));
+    return response;
+  }
+
+  private static Response bookingsResponse() {
+    Response response = new Response();
+    response.setStatusCode(200);
+    response.setMessage("successful");
+    response.setBookingList(List.of(booking(1L), booking(2L)));
+    return response;
+  }
+
+  @RestController
+  static class ListsController {
+
+    @GetMapping("/rooms")
+    public ResponseEntity<Response> rooms() {
+      return ResponseEntity.ok(roomsResponse());
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<Response> bookings() {
+      return ResponseEntity.ok(bookingsResponse());
+    }
+
+    @PostMapping("/bookings/echo")
+    public BookingDTO echo(@RequestBody BookingDTO booking) {
+      return booking;
+    }
+  }
+}
@@ -13,17 +13,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -69,6 +76,36 @@ public class BookingControllerTest {
     verify(bookingService, times(1)).getAllBookings();
   }
 
+  @Test
+  public void testGetAllBookings_StreamsNdjson() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(bookingController, "objectMapper", objectMapper);
+    com.phegondev.PhegonHotel.dto.BookingDTO booking = new com.phegondev.PhegonHotel.dto.BookingDTO();
+    booking.setId(7L);
+    booking.setCheckInDate(LocalDate.of(2030, 1, 10));
+    booking.setBookingConfirmationCode("ABC123");
+    doAnswer(invocation -> {
+      Consumer<com.phegondev.PhegonHotel.dto.BookingDTO> action = invocation.getArgument(0);
+      action.accept(booking);
+      return null;
+    }).when(bookingService).streamAllBookings(any());
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/bookings/all").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+    String[] lines = body.strip().split("\n");
+    assertEquals(1, lines.length);
+    assertTrue(lines[0].contains("\"bookingConfirmationCode\":\"ABC123\""));
+    verify(bookingService, never()).getAllBookings();
+  }
+
   @Test
   public void testBookRoom_Success() throws Exception {
     // Arrange
@@ -0,0 +1,226 @@
+package com.phegondev.PhegonHotel.controller;
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.service.interfac.IRoomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveRoomControllerTest {
+
+  private MockMvc mockMvc;
+
+  private Scheduler scheduler;
+
+  @Mock
+  private IRoomService roomService;
+
+  @InjectMocks
+  private ReactiveRoomController reactiveRoomController;
+
+  @BeforeEach
+  public void setup() {
+    scheduler = Schedulers.newBoundedElastic(2, 10, "room-read-test");
+    ReflectionTestUtils.setField(reactiveRoomController, "roomReadScheduler", scheduler);
+    mockMvc = MockMvcBuilders
+            .standaloneSetup(reactiveRoomController)
+            .build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    scheduler.dispose();
+  }
+
+  @Test
+  public void testGetAllRooms_StreamsOneRoomPerLine() throws Exception {
+    // Arrange
+    when(roomService.getAllRooms()).thenReturn(roomListResponse(room(1L, "Deluxe"), room(2L, "Suite")));
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rx/rooms/all"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+    String[] lines = body.strip().split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[0].contains("\"roomType\":\"Deluxe\""));
+    assertTrue(lines[1].contains("\"roomType\":\"Suite\""));
+  }
+
+  @Test
+  public void testServiceRunsOffTheRequestThread() throws Exception {
+    // Arrange
+    String requestThread = Thread.currentThread().getName();
+    String[] serviceThread = new String[1];
+    when(roomService.getAllRoomTypes()).thenAnswer(invocation -> {
+      serviceThread[0] = Thread.currentThread().getName();
+      return List.of("Deluxe");
+    });
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rx/rooms/types")).andReturn();
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0]").value("Deluxe"));
+
+    // Assert
+    assertNotEquals(requestThread, serviceThread[0]);
+    assertTrue(serviceThread[0].startsWith("room-read-test"));
+  }
+
+  @Test
+  public void testGetRoomById_KeepsServiceStatus() throws Exception {
+    // Arrange
+    Response notFound = new Response();
+    notFound.setStatusCode(404);
+    notFound.setMessage("Room Not Found");
+    when(roomService.getRoomById(anyLong())).thenReturn(notFound);
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rx/rooms/room-by-id/9")).andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.message").value("Room Not Found"));
+  }
+
+  @Test
+  public void testSearchByDateAndType() throws Exception {
+    // Arrange
+    LocalDate checkIn = LocalDate.now().plusDays(1);
+    when(roomService.getAvailableRoomsByDataAndType(any(), any(), anyString()))
+            .thenReturn(roomListResponse(room(3L, "Deluxe")));
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rx/rooms/available-rooms-by-date-and-type")
+                    .param("checkInDate", checkIn.toString())
+                    .param("checkOutDate", checkIn.plusDays(2).toString())
+                    .param("roomType", "Deluxe"))
+            .andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("\"id\":3")));
+    verify(roomService).getAvailableRoomsByDataAndType(checkIn, checkIn.plusDays(2), "Deluxe");
+  }
+
+  @Test
+  public void testSearchWithMissingParameters() throws Exception {
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rx/rooms/available-rooms-by-date-and-type")
+                    .param("roomType", "Deluxe"))
+            .andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.statusCode").value(400))
+            .andExpect(jsonPath("$.message").value("Please provide values for all fields(checkInDate, roomType,checkOutDate)"));
+    verifyNoInteractions(roomService);
+  }
+
+  @Test
+  public void testServiceErrorBecomesStatusCode() throws Exception {
+    // Arrange
+    Response failed = new Response();
+    failed.setStatusCode(500);
+    failed.setMessage("Error saving a room boom");
+    when(roomService.getAllAvailableRooms()).thenReturn(failed);
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rx/rooms/all-available-rooms")).andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isInternalServerError())
+            .andExpect(jsonPath("$.message").value("Error saving a room boom"));
+  }
+
+  @Test
+  public void testQueueFullIsAnsweredWith503() throws Exception {
+    // Arrange - a scheduler with one thread and room for one waiting task, both taken
+    Scheduler saturated = Schedulers.newBoundedElastic(1, 1, "room-read-full");
+    ReflectionTestUtils.setField(reactiveRoomController, "roomReadScheduler", saturated);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    saturated.schedule(() -> {
+      running.countDown();
+      awaitQuietly(release);
+    });
+    assertTrue(running.await(5, TimeUnit.SECONDS));
+    saturated.schedule(() -> awaitQuietly(release));
+
+    try {
+      // Act
+      MvcResult result = mockMvc.perform(get("/api/rx/rooms/room-by-id/1")).andReturn();
+
+      // Assert
+      mockMvc.perform(asyncDispatch(result))
+              .andExpect(status().isServiceUnavailable())
+              .andExpect(jsonPath("$.statusCode").value(503));
+      verifyNoInteractions(roomService);
+    } finally {
+      release.countDown();
+      saturated.dispose();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static RoomDTO room(Long id, String type) {
+    RoomDTO room = new RoomDTO();
+    room.setId(id);
+    room.setRoomType(type);
+    room.setRoomPrice(new BigDecimal("150.00"));
+    return room;
+  }
+
+  private static Response roomListResponse(RoomDTO... rooms) {
+    Response response = new Response();
+    response.setStatusCode(200);
+    response.setMessage("successful");
+    response.setRoomList(List.of(rooms));
+    return response;
+  }
+}
@@ -0,0 +1,249 @@
+package com.phegondev.PhegonHotel.controller;
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.security.JWTAuthFilter;
+import com.phegondev.PhegonHotel.security.PoolBackpressureFilter;
+import com.phegondev.PhegonHotel.security.ReactiveReadConfig;
+import com.phegondev.PhegonHotel.security.SecurityConfig;
+import com.phegondev.PhegonHotel.service.CustomUserDetailsService;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
+import com.phegondev.PhegonHotel.service.TokenRevocationService;
+import com.phegondev.PhegonHotel.service.interfac.IBookingService;
+import com.phegondev.PhegonHotel.service.interfac.IRoomService;
+import com.phegondev.PhegonHotel.utils.JWTUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Room endpoints through the application's security filter chain: {@code /api/rooms/**} is public, but the NDJSON
+ * export and the upload progress are not. The async pool has a single thread and no queue, so a second concurrent export is turned away.
+ */
+@WebMvcTest(RoomController.class)
+@Import({SecurityConfig.class, JWTAuthFilter.class, PoolBackpressureFilter.class, JWTUtils.class,
+        TokenRevocationService.class, ReactiveReadConfig.class, RoomControllerSecurityTest.Config.class})
+@TestPropertySource(properties = {
+        "jwt.secret.key=843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3",
+        "SPRING_APPLICATION_NAME=test-app",
+        "SERVER_PORT=0",
+        "admin.email=admin@test.com",
+        "admin.name=Test Admin",
+        "admin.phone=1234567890",
+        "admin.password=test-password",
+        "admin.role=ADMIN",
+        "app.rx.write-threads=1",
+        "app.rx.write-queue-capacity=0"
+})
+public class RoomControllerSecurityTest {
+
+  @TestConfiguration
+  static class Config {
+    @Bean
+    public IRoomService roomService() {
+      IRoomService roomService = mock(IRoomService.class);
+      Response rooms = new Response();
+      rooms.setStatusCode(200);
+      rooms.setMessage("successful");
+      rooms.setRoomList(new ArrayList<>());
+      when(roomService.getAllRooms()).thenReturn(rooms);
+      Response upload = new Response();
+      upload.setStatusCode(200);
+      upload.setMessage("successful");
+      when(roomService.getRoomUpload(any())).thenReturn(upload);
+      streamOneSuite(roomService);
+      return roomService;
+    }
+
+    static void streamOneSuite(IRoomService roomService) {
+      doAnswer(invocation -> {
+        Consumer<RoomDTO> row = invocation.getArgument(0);
+        RoomDTO room = new RoomDTO();
+        room.setId(1L);
+        room.setRoomType("SUITE");
+        row.accept(room);
+        return null;
+      }).when(roomService).streamAllRooms(any());
+    }
+
+    @Bean
+    public IBookingService bookingService() {
+      return mock(IBookingService.class);
+    }
+
+    @Bean
+    public RoomCatalogVersion roomCatalogVersion() {
+      return new RoomCatalogVersion();
+    }
+
+    @Bean
+    public CustomUserDetailsService customUserDetailsService() {
+      return mock(CustomUserDetailsService.class);
+    }
+
+    @Bean
+    public UserRepository userRepository() {
+      return mock(UserRepository.class);
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  // Registered as is, so Spring does not try to inject the real service's collaborators into the mock
+  @MockitoBean
+  private RoomPhotoUploads roomPhotoUploads;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JWTUtils jwtUtils;
+
+  @Autowired
+  private IRoomService roomService;
+
+  @Test
+  public void testRoomListStaysPublic() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/all"))
+            .andExpect(status().isOk());
+  }
+
+  @Test
+  public void testNdjsonExportCompletesForAdmin() throws Exception {
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rooms/all")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("ADMIN")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("\"roomType\":\"SUITE\"")));
+  }
+
+  @Test
+  public void testNdjsonExportRequiresAdmin() throws Exception {
+    // Act & Assert - neither anonymous nor guest clients can hold a stream open
+    mockMvc.perform(get("/api/rooms/all").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isForbidden())
+            .andExpect(request().asyncNotStarted());
+
+    mockMvc.perform(get("/api/rooms/all")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("USER")))
+            .andExpect(status().isForbidden())
+            .andExpect(request().asyncNotStarted());
+  }
+
+  @Test
+  public void testUploadProgressRequiresAdmin() throws Exception {
+    // Act & Assert - polling and subscribing alike
+    mockMvc.perform(get("/api/rooms/uploads/upload-1"))
+            .andExpect(status().isForbidden());
+    mockMvc.perform(get("/api/rooms/uploads/upload-1").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isForbidden())
+            .andExpect(request().asyncNotStarted());
+    mockMvc.perform(get("/api/rooms/uploads/upload-1")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("USER")))
+            .andExpect(status().isForbidden());
+
+    mockMvc.perform(get("/api/rooms/uploads/upload-1")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("ADMIN")))
+            .andExpect(status().isOk());
+  }
+
+  @Test
+  public void testExportBeyondTheAsyncPoolIsTurnedAway() throws Exception {
+    // Arrange - the only async thread is held by an export the client is still reading
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      started.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return null;
+    }).when(roomService).streamAllRooms(any());
+    MvcResult first = mockMvc.perform(exportAsAdmin()).andExpect(request().asyncStarted()).andReturn();
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    try {
+      // Act
+      MvcResult second = mockMvc.perform(exportAsAdmin()).andReturn();
+
+      // Assert - the rejection is the async result, which the container dispatches straight back
+      assertInstanceOf(TaskRejectedException.class,
+              WebAsyncUtils.getAsyncManager(second.getRequest()).getConcurrentResult());
+      mockMvc.perform(redispatch(second))
+              .andExpect(status().isServiceUnavailable())
+              .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    } finally {
+      release.countDown();
+      Config.streamOneSuite(roomService);
+    }
+    mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+  }
+
+  // MockMvc's asyncDispatch only sees results of tasks that ran, so dispatch the rejected request like the container would
+  private static RequestBuilder redispatch(MvcResult result) {
+    return servletContext -> {
+      MockHttpServletRequest request = result.getRequest();
+      request.setDispatcherType(DispatcherType.ASYNC);
+      request.setAsyncStarted(false);
+      return request;
+    };
+  }
+
+  private MockHttpServletRequestBuilder exportAsAdmin() {
+    return get("/api/rooms/all")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("ADMIN"));
+  }
+
+  private String tokenFor(String role) {
+    return jwtUtils.generateToken(User.withUsername("someone@example.com").password("").authorities(role).build());
+  }
+}
@@ -3,6 +3,10 @@ package com.phegondev.PhegonHotel.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.RoomUploadDTO;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
 import com.phegondev.PhegonHotel.service.interfac.IBookingService;
 import com.phegondev.PhegonHotel.service.interfac.IRoomService;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,10 +14,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -22,11 +30,20 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +59,12 @@ public class RoomControllerTest {
   @Mock
   private IBookingService bookingService;
 
+  @Mock
+  private RoomPhotoUploads roomPhotoUploads;
+
+  @Spy
+  private RoomCatalogVersion roomCatalogVersion = new RoomCatalogVersion();
+
   @InjectMocks
   private RoomController roomController;
 
@@ -123,6 +146,80 @@ public class RoomControllerTest {
     verify(roomService, never()).addNewRoom(any(), anyString(), any(BigDecimal.class), anyString());
   }
 
+  @Test
+  public void testAddNewRoom_AcceptedWithUploadLocation() throws Exception {
+    // Arrange
+    MockMultipartFile photoFile = new MockMultipartFile(
+            "photo", "room.jpg", MediaType.IMAGE_JPEG_VALUE, "photo content".getBytes());
+
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(202);
+    mockResponse.setMessage("Room will be listed once its photo is uploaded");
+    mockResponse.setRoomUpload(new RoomUploadDTO("upload-1", RoomUploadDTO.PENDING, null, null, null));
+
+    when(roomService.addNewRoom(any(), anyString(), any(BigDecimal.class), anyString())).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(MockMvcRequestBuilders.multipart("/api/rooms/add")
+                    .file(photoFile)
+                    .param("roomType", "DELUXE")
+                    .param("roomPrice", "199.99")
+                    .param("roomDescription", "Luxury room with sea view"))
+            .andExpect(status().isAccepted())
+            .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/rooms/uploads/upload-1"))
+            .andExpect(jsonPath("$.roomUpload.uploadId").value("upload-1"))
+            .andExpect(jsonPath("$.roomUpload.status").value("PENDING"))
+            .andExpect(jsonPath("$.roomUpload.roomId").doesNotExist());
+  }
+
+  @Test
+  public void testGetRoomUpload_Success() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setMessage("successful");
+    mockResponse.setRoomUpload(new RoomUploadDTO("upload-1", RoomUploadDTO.COMPLETED, 7L,
+            "https://example.com/room.jpg", null));
+
+    when(roomService.getRoomUpload("upload-1")).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/uploads/upload-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomUpload.status").value("COMPLETED"))
+            .andExpect(jsonPath("$.roomUpload.roomId").value(7))
+            .andExpect(jsonPath("$.roomUpload.roomPhotoUrl").value("https://example.com/room.jpg"));
+  }
+
+  @Test
+  public void testFollowRoomUpload_SendsTheFinalState() throws Exception {
+    // Arrange
+    RoomUploadDTO completed = new RoomUploadDTO("upload-1", RoomUploadDTO.COMPLETED, 7L,
+            "https://example.com/room.jpg", null);
+    when(roomPhotoUploads.whenFinished("upload-1")).thenReturn(Optional.of(CompletableFuture.completedFuture(completed)));
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rooms/uploads/upload-1").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    String events = result.getResponse().getContentAsString();
+    assertTrue(events.contains("event:upload"), events);
+    assertTrue(events.contains("\"status\":\"COMPLETED\""), events);
+    verifyNoInteractions(roomService);
+  }
+
+  @Test
+  public void testFollowRoomUpload_UnknownUpload() throws Exception {
+    // Arrange
+    when(roomPhotoUploads.whenFinished("missing")).thenReturn(Optional.empty());
+
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/uploads/missing").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(status().isNotFound());
+  }
+
   @Test
   public void testGetAllRooms_Success() throws Exception {
     // Arrange
@@ -142,6 +239,35 @@ public class RoomControllerTest {
     verify(roomService, times(1)).getAllRooms();
   }
 
+  @Test
+  public void testGetAllRooms_StreamsNdjson() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(roomController, "objectMapper", objectMapper);
+    doAnswer(invocation -> {
+      Consumer<RoomDTO> action = invocation.getArgument(0);
+      for (long id = 1; id <= 3; id++) {
+        RoomDTO room = new RoomDTO();
+        room.setId(id);
+        room.setRoomType("Deluxe");
+        action.accept(room);
+      }
+      return null;
+    }).when(roomService).streamAllRooms(any());
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/rooms/all").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+    assertEquals(3, body.strip().split("\n").length);
+    verify(roomService, never()).getAllRooms();
+  }
+
   @Test
   public void testGetAllAvailableRooms_Success() throws Exception {
     // Arrange
@@ -199,6 +325,113 @@ public class RoomControllerTest {
     verify(roomService, times(1)).getRoomById(roomId);
   }
 
+  @Test
+  public void testGetAllRooms_TaggedWithCatalogVersion() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setMessage("successful");
+    mockResponse.setRoomList(new ArrayList<>());
+    when(roomService.getAllRooms()).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/all"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, roomCatalogVersion.etag("rooms.json")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+  }
+
+  @Test
+  public void testGetAllRooms_NotModifiedSkipsService() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/all").header(HttpHeaders.IF_NONE_MATCH, roomCatalogVersion.etag("rooms.json")))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, roomCatalogVersion.etag("rooms.json")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andExpect(content().string(""));
+
+    verifyNoInteractions(roomService);
+  }
+
+  @Test
+  public void testGetRoomTypes_StaleTagAfterChange() throws Exception {
+    // Arrange
+    String staleTag = roomCatalogVersion.etag("room-types.json");
+    roomCatalogVersion.bump();
+    when(roomService.getAllRoomTypes()).thenReturn(List.of("DELUXE"));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/types").header(HttpHeaders.IF_NONE_MATCH, staleTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, roomCatalogVersion.etag("room-types.json")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andExpect(jsonPath("$[0]").value("DELUXE"));
+    assertNotEquals(staleTag, roomCatalogVersion.etag("room-types.json"));
+  }
+
+  @Test
+  public void testGetRoomTypes_EachFormatHasItsOwnTag() throws Exception {
+    // Arrange
+    String jsonTag = roomCatalogVersion.etag("room-types.json");
+    when(roomService.getAllRoomTypes()).thenReturn(List.of("DELUXE"));
+
+    // Act & Assert - a cached JSON copy does not revalidate a CBOR request
+    mockMvc.perform(get("/api/rooms/types")
+                    .accept(MediaType.APPLICATION_CBOR)
+                    .header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+            .andExpect(header().string(HttpHeaders.ETAG, roomCatalogVersion.etag("room-types.cbor")))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    assertNotEquals(jsonTag, roomCatalogVersion.etag("room-types.cbor"));
+  }
+
+  @Test
+  public void testRepresentationFor_FollowsAccept() {
+    // Act & Assert
+    assertEquals(MediaType.APPLICATION_JSON, RoomController.representationFor(null));
+    assertEquals(MediaType.APPLICATION_JSON, RoomController.representationFor("*/*"));
+    assertEquals(MediaType.APPLICATION_JSON, RoomController.representationFor("application/*"));
+    assertEquals(MediaType.APPLICATION_CBOR,
+            RoomController.representationFor("application/json;q=0.5, application/cbor"));
+    assertEquals(MediaType.APPLICATION_JSON,
+            RoomController.representationFor("application/cbor;q=0, */*"));
+    assertEquals(MediaType.APPLICATION_JSON, RoomController.representationFor("not a media type"));
+  }
+
+  @Test
+  public void testGetRoomById_PrivateAndRevalidated() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setMessage("successful");
+    when(roomService.getRoomById(1L)).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/room-by-id/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, roomCatalogVersion.etag("room-1.json")))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+  }
+
+  @Test
+  public void testGetRoomById_NotFoundIsNotTagged() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(404);
+    mockResponse.setMessage("Room Not Found");
+    when(roomService.getRoomById(9L)).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/rooms/room-by-id/9"))
+            .andExpect(status().isNotFound())
+            .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+  }
+
   @Test
   public void testGetAvailableRoomsByDateAndType_Success() throws Exception {
     // Arrange
@@ -0,0 +1,169 @@
+package com.phegondev.PhegonHotel.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.phegondev.PhegonHotel.dto.BookingDTO;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.security.JacksonConfig;
+import com.phegondev.PhegonHotel.utils.SparseFieldsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class SparseFieldsetAdviceTest {
+
+  private MockMvc mockMvc;
+
+  private ObjectMapper objectMapper;
+
+  private SparseFieldsetAdvice sparseFieldsetAdvice;
+
+  @BeforeEach
+  public void setup() {
+    // Same mapper configuration the application gets from JacksonConfig
+    Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+    new JacksonConfig().sparseFieldsetCustomizer().customize(builder);
+    objectMapper = builder.build();
+
+    sparseFieldsetAdvice = new SparseFieldsetAdvice();
+    mockMvc = MockMvcBuilders
+            .standaloneSetup(new RoomsController())
+            .setControllerAdvice(sparseFieldsetAdvice)
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+            .build();
+  }
+
+  @Test
+  public void testWithoutFieldsEverythingIsWritten() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/rooms"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomList[0].roomDescription").value("A long description of the room"))
+            .andExpect(jsonPath("$.roomList[0].roomPhotoUrl").value("https://example.com/room.jpg"))
+            .andExpect(jsonPath("$.roomList[0].bookings[0].bookingConfirmationCode").value("ABC123"));
+  }
+
+  @Test
+  public void testFieldsSelectDtoProperties() throws Exception {
+    // Act & Assert - the envelope is untouched, each room keeps only what was asked for
+    mockMvc.perform(get("/rooms").param("fields", "id,roomType,roomPrice"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.statusCode").value(200))
+            .andExpect(jsonPath("$.message").value("successful"))
+            .andExpect(jsonPath("$.roomList[0].id").value(1))
+            .andExpect(jsonPath("$.roomList[0].roomType").value("Deluxe"))
+            .andExpect(jsonPath("$.roomList[0].roomPrice").value(150.0))
+            .andExpect(jsonPath("$.roomList[0].roomDescription").doesNotExist())
+            .andExpect(jsonPath("$.roomList[0].roomPhotoUrl").doesNotExist())
+            .andExpect(jsonPath("$.roomList[0].bookings").doesNotExist());
+  }
+
+  @Test
+  public void testFieldsApplyToNestedDtos() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/rooms").param("fields", "id, bookings ,bookingConfirmationCode"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomList[0].id").value(1))
+            .andExpect(jsonPath("$.roomList[0].roomType").doesNotExist())
+            .andExpect(jsonPath("$.roomList[0].bookings[0].id").value(7))
+            .andExpect(jsonPath("$.roomList[0].bookings[0].bookingConfirmationCode").value("ABC123"))
+            .andExpect(jsonPath("$.roomList[0].bookings[0].checkInDate").doesNotExist());
+  }
+
+  @Test
+  public void testBlankFieldsAreIgnored() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/rooms").param("fields", " , "))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.roomList[0].roomDescription").exists());
+  }
+
+  @Test
+  public void testSelectionIsSmallerOnTheWire() throws Exception {
+    // Act
+    int full = mockMvc.perform(get("/rooms")).andReturn().getResponse().getContentAsByteArray().length;
+    int sparse = mockMvc.perform(get("/rooms").param("fields", "id,roomType,roomPrice"))
+            .andReturn().getResponse().getContentAsByteArray().length;
+
+    // Assert
+    assertTrue(sparse < full / 2, "sparse " + sparse + " bytes, full " + full + " bytes");
+  }
+
+  @Test
+  public void testFiltersAreReusedPerFieldSet() {
+    // Act
+    FilterProvider first = sparseFieldsetAdvice.filtersFor(SparseFieldsets.parse("roomPrice,id"));
+    FilterProvider reordered = sparseFieldsetAdvice.filtersFor(SparseFieldsets.parse("id,roomPrice,id"));
+    FilterProvider other = sparseFieldsetAdvice.filtersFor(SparseFieldsets.parse("id"));
+
+    // Assert
+    assertSame(first, reordered);
+    assertNotSame(first, other);
+  }
+
+  @Test
+  public void testCacheIsBounded() {
+    // Arrange
+    for (int i = 0; i < SparseFieldsetAdvice.MAX_CACHED_FIELD_SETS; i++) {
+      sparseFieldsetAdvice.filtersFor(SparseFieldsets.parse("field" + i));
+    }
+
+    // Act
+    FilterProvider first = sparseFieldsetAdvice.filtersFor(SparseFieldsets.parse("overflow"));
+    FilterProvider second = sparseFieldsetAdvice.filtersFor(SparseFieldsets.parse("overflow"));
+
+    // Assert - still answered, just not kept
+    assertNotNull(first);
+    assertNotSame(first, second);
+  }
+
+  @Test
+  public void testDtosOutsideAResponseAreWrittenInFull() throws Exception {
+    // Act - NDJSON export and other direct writes go through the same mapper without a selection
+    String json = objectMapper.writeValueAsString(room());
+
+    // Assert
+    assertTrue(json.contains("\"roomDescription\""));
+    assertTrue(json.contains("\"bookingConfirmationCode\""));
+  }
+
+  private static RoomDTO room() {
+    BookingDTO booking = new BookingDTO();
+    booking.setId(7L);
+    booking.setBookingConfirmationCode("ABC123");
+    booking.setNumOfAdults(2);
+
+    RoomDTO room = new RoomDTO(1L, "Deluxe", new BigDecimal("150.00"),
+            "https://example.com/room.jpg", "A long description of the room");
+    room.setBookings(List.of(booking));
+    return room;
+  }
+
+  @RestController
+  static class RoomsController {
+
+    @GetMapping("/rooms")
+    public ResponseEntity<Response> rooms() {
+      Response response = new Response();
+      response.setStatusCode(200);
+      response.setMessage("successful");
+      response.setRoomList(List.of(room(), room()));
+      return ResponseEntity.ok(response);
+    }
+  }
+}
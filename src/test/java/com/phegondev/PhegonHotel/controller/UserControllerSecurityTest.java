@@ -0,0 +1,135 @@
+package com.phegondev.PhegonHotel.controller;
+
+import com.phegondev.PhegonHotel.dto.UserDTO;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.security.JWTAuthFilter;
+import com.phegondev.PhegonHotel.security.PoolBackpressureFilter;
+import com.phegondev.PhegonHotel.security.SecurityConfig;
+import com.phegondev.PhegonHotel.service.CustomUserDetailsService;
+import com.phegondev.PhegonHotel.service.TokenRevocationService;
+import com.phegondev.PhegonHotel.service.interfac.IUserImportService;
+import com.phegondev.PhegonHotel.service.interfac.IUserService;
+import com.phegondev.PhegonHotel.utils.JWTUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The admin NDJSON export through the application's security filter chain, including the async dispatch that
+ * finishes a {@code StreamingResponseBody}.
+ */
+@WebMvcTest(UserController.class)
+@Import({SecurityConfig.class, JWTAuthFilter.class, PoolBackpressureFilter.class, JWTUtils.class,
+        TokenRevocationService.class, UserControllerSecurityTest.Config.class})
+@TestPropertySource(properties = {
+        "jwt.secret.key=843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3",
+        "SPRING_APPLICATION_NAME=test-app",
+        "SERVER_PORT=0",
+        "admin.email=admin@test.com",
+        "admin.name=Test Admin",
+        "admin.phone=1234567890",
+        "admin.password=test-password",
+        "admin.role=ADMIN"
+})
+public class UserControllerSecurityTest {
+
+  @TestConfiguration
+  static class Config {
+    @Bean
+    public IUserService userService() {
+      IUserService userService = mock(IUserService.class);
+      doAnswer(invocation -> {
+        Consumer<UserDTO> row = invocation.getArgument(0);
+        UserDTO user = new UserDTO();
+        user.setId(1L);
+        user.setEmail("guest@example.com");
+        row.accept(user);
+        return null;
+      }).when(userService).streamAllUsers(any());
+      return userService;
+    }
+
+    @Bean
+    public IUserImportService userImportService() {
+      return mock(IUserImportService.class);
+    }
+
+    @Bean
+    public CustomUserDetailsService customUserDetailsService() {
+      return mock(CustomUserDetailsService.class);
+    }
+
+    @Bean
+    public UserRepository userRepository() {
+      return mock(UserRepository.class);
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+      return new SimpleMeterRegistry();
+    }
+  }
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private JWTUtils jwtUtils;
+
+  @Test
+  public void testNdjsonExportCompletesForAdmin() throws Exception {
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/users/all")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("ADMIN")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert - the async dispatch that writes the body passes the filter chain too
+    mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andExpect(content().string(containsString("\"email\":\"guest@example.com\"")));
+  }
+
+  @Test
+  public void testNdjsonExportStillRequiresAdmin() throws Exception {
+    // Act & Assert
+    mockMvc.perform(get("/api/users/all")
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor("USER")))
+            .andExpect(status().isForbidden())
+            .andExpect(request().asyncNotStarted());
+
+    mockMvc.perform(get("/api/users/all").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(status().isForbidden())
+            .andExpect(request().asyncNotStarted());
+  }
+
+  private String tokenFor(String role) {
+    return jwtUtils.generateToken(User.withUsername("someone@example.com").password("").authorities(role).build());
+  }
+}
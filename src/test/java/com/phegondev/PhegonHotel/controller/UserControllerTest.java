@@ -3,6 +3,7 @@ package com.phegondev.PhegonHotel.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.phegondev.PhegonHotel.dto.Response;
 import com.phegondev.PhegonHotel.dto.UserDTO;
+import com.phegondev.PhegonHotel.service.interfac.IUserImportService;
 import com.phegondev.PhegonHotel.service.interfac.IUserService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,20 +12,32 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +50,9 @@ public class UserControllerTest {
   @Mock
   private IUserService userService;
 
+  @Mock
+  private IUserImportService userImportService;
+
   @InjectMocks
   private UserController userController;
 
@@ -86,6 +102,33 @@ public class UserControllerTest {
     verify(userService, times(1)).getAllUsers();
   }
 
+  @Test
+  public void testGetAllUsers_StreamsNdjson() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(userController, "objectMapper", objectMapper);
+    doAnswer(invocation -> {
+      Consumer<UserDTO> action = invocation.getArgument(0);
+      action.accept(createUserDTO(1L, "user1@example.com", "User One"));
+      action.accept(createUserDTO(2L, "user2@example.com", "User Two"));
+      return null;
+    }).when(userService).streamAllUsers(any());
+
+    // Act
+    MvcResult result = mockMvc.perform(get("/api/users/all").accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    // Assert
+    String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+    String[] lines = body.strip().split("\n");
+    assertEquals(2, lines.length);
+    assertTrue(lines[1].contains("\"email\":\"user2@example.com\""));
+    verify(userService, never()).getAllUsers();
+  }
+
   @Test
   public void testGetAllUsers_ServerError() throws Exception {
     // Arrange
@@ -273,4 +316,51 @@ public class UserControllerTest {
     userDTO.setBookings(new ArrayList<>());
     return userDTO;
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testImportUsers_Csv() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setMessage("Imported 1, skipped 0, failed 0");
+
+    when(userImportService.importUsers(any(), eq("text/csv"))).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/users/import")
+                    .contentType("text/csv")
+                    .content("email,name,phoneNumber,password\na@example.com,A,1,p\n"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message").value("Imported 1, skipped 0, failed 0"));
+
+    verify(userImportService, times(1)).importUsers(any(), eq("text/csv"));
+  }
+
+  @Test
+  public void testImportUsers_UnsupportedContentType() throws Exception {
+    mockMvc.perform(post("/api/users/import")
+                    .contentType("text/plain")
+                    .content("whatever"))
+            .andExpect(status().isUnsupportedMediaType());
+
+    verifyNoInteractions(userImportService);
+  }
+
+  @Test
+  public void testGetUserBookingHistory_Paged() throws Exception {
+    // Arrange
+    Response mockResponse = new Response();
+    mockResponse.setStatusCode(200);
+    mockResponse.setMessage("successful");
+
+    when(userService.getUserBookingHistory("1", 1, 10)).thenReturn(mockResponse);
+
+    // Act & Assert
+    mockMvc.perform(get("/api/users/get-user-bookings/1").param("page", "1").param("size", "10"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.message").value("successful"));
+
+    verify(userService, times(1)).getUserBookingHistory("1", 1, 10);
+    verify(userService, never()).getUserBookingHistory("1");
+  }
+}
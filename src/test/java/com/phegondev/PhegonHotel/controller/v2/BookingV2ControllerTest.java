@@ -0,0 +1,170 @@
+package com.phegondev.PhegonHotel.controller.v2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.phegondev.PhegonHotel.dto.v2.BookingDetail;
+import com.phegondev.PhegonHotel.dto.v2.BookingRequest;
+import com.phegondev.PhegonHotel.dto.v2.BookingView;
+import com.phegondev.PhegonHotel.dto.v2.GuestView;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
+import com.phegondev.PhegonHotel.service.BookingOutcome;
+import com.phegondev.PhegonHotel.service.interfac.IBookingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingV2ControllerTest {
+
+  private MockMvc mockMvc;
+
+  private ObjectMapper objectMapper;
+
+  @Mock
+  private IBookingService bookingService;
+
+  @InjectMocks
+  private BookingV2Controller bookingV2Controller;
+
+  private final BookingRequest request =
+          new BookingRequest(1L, 2L, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 2, 0);
+
+  @BeforeEach
+  public void setup() {
+    objectMapper = new ObjectMapper();
+    objectMapper.registerModule(new JavaTimeModule());
+
+    mockMvc = MockMvcBuilders
+            .standaloneSetup(bookingV2Controller)
+            .setControllerAdvice(new V2ProblemDetailsAdvice())
+            // ISO dates, as Spring Boot configures the application's mapper
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()))
+            .build();
+  }
+
+  @Test
+  public void testCreateBooking_Created() throws Exception {
+    // Arrange
+    when(bookingService.createBooking(request)).thenReturn(BookingOutcome.booked("ABC123"));
+
+    // Act & Assert
+    mockMvc.perform(post("/api/v2/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Location", "http://localhost/api/v2/bookings/ABC123"))
+            .andExpect(jsonPath("$.bookingConfirmationCode").value("ABC123"));
+  }
+
+  @Test
+  public void testCreateBooking_OutcomesMapToProblems() throws Exception {
+    // Arrange
+    when(bookingService.createBooking(request)).thenReturn(
+            BookingOutcome.failed(BookingOutcome.Status.ROOM_NOT_FOUND),
+            BookingOutcome.failed(BookingOutcome.Status.UNAVAILABLE),
+            BookingOutcome.failed(BookingOutcome.Status.CONFLICT));
+    String body = objectMapper.writeValueAsString(request);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/v2/bookings").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.detail").value("Room Not Found"));
+    mockMvc.perform(post("/api/v2/bookings").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.detail").value("Room not Available for selected date range"));
+    mockMvc.perform(post("/api/v2/bookings").contentType(MediaType.APPLICATION_JSON).content(body))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.detail").value("Room is being booked by someone else, please try again"));
+  }
+
+  @Test
+  public void testCreateBooking_InvalidRequestsNeverReachTheService() throws Exception {
+    // Arrange
+    BookingRequest reversed = new BookingRequest(1L, 2L, LocalDate.of(2030, 1, 12), LocalDate.of(2030, 1, 10), 2, 0);
+    BookingRequest noAdults = new BookingRequest(1L, 2L, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 0, 1);
+
+    // Act & Assert
+    mockMvc.perform(post("/api/v2/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(reversed)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detail").value("checkOutDate must not be before checkInDate"));
+    mockMvc.perform(post("/api/v2/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(noAdults)))
+            .andExpect(status().isBadRequest());
+    mockMvc.perform(post("/api/v2/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"roomId\":1}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    mockMvc.perform(post("/api/v2/bookings")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{not json"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+
+    verify(bookingService, never()).createBooking(any());
+  }
+
+  @Test
+  public void testGetBooking() throws Exception {
+    // Arrange
+    BookingDetail detail = new BookingDetail(
+            new BookingView(5L, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 2, 0, 2, "ABC123"),
+            new RoomView(1L, "DELUXE", new BigDecimal("199.99"), "https://example.com/room.jpg", "Sea view"),
+            new GuestView(2L, "Guest", "guest@example.com", "0123456789"));
+    when(bookingService.findBookingDetail("ABC123")).thenReturn(Optional.of(detail));
+    when(bookingService.findBookingDetail("MISSING")).thenReturn(Optional.empty());
+
+    // Act & Assert - the guest carries no password, role or booking list
+    mockMvc.perform(get("/api/v2/bookings/ABC123"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.booking.checkOutDate").value("2030-01-12"))
+            .andExpect(jsonPath("$.room.roomType").value("DELUXE"))
+            .andExpect(jsonPath("$.guest.email").value("guest@example.com"))
+            .andExpect(jsonPath("$.guest.role").doesNotExist())
+            .andExpect(jsonPath("$.guest.bookings").doesNotExist());
+    mockMvc.perform(get("/api/v2/bookings/MISSING"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.detail").value("Booking Not Found"));
+  }
+
+  @Test
+  public void testCancelBooking() throws Exception {
+    // Arrange
+    when(bookingService.deleteBooking(1L)).thenReturn(true);
+    when(bookingService.deleteBooking(2L)).thenReturn(false);
+
+    // Act & Assert
+    mockMvc.perform(delete("/api/v2/bookings/1"))
+            .andExpect(status().isNoContent());
+    mockMvc.perform(delete("/api/v2/bookings/2"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.detail").value("Booking Does Not Exist"));
+  }
+}
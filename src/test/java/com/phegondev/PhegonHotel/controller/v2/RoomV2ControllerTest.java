@@ -0,0 +1,140 @@
+package com.phegondev.PhegonHotel.controller.v2;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.phegondev.PhegonHotel.dto.v2.BookingView;
+import com.phegondev.PhegonHotel.dto.v2.RoomDetail;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
+import com.phegondev.PhegonHotel.service.interfac.IRoomService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomV2ControllerTest {
+
+  private MockMvc mockMvc;
+
+  @Mock
+  private IRoomService roomService;
+
+  @InjectMocks
+  private RoomV2Controller roomV2Controller;
+
+  private final RoomView room = new RoomView(1L, "DELUXE", new BigDecimal("199.99"),
+          "https://example.com/room.jpg", "Luxury room with sea view");
+
+  @BeforeEach
+  public void setup() {
+    mockMvc = MockMvcBuilders
+            .standaloneSetup(roomV2Controller)
+            .setControllerAdvice(new V2ProblemDetailsAdvice())
+            // ISO dates, as Spring Boot configures the application's mapper
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build()))
+            .build();
+  }
+
+  @Test
+  public void testGetRooms_ReturnsBareList() throws Exception {
+    // Arrange
+    when(roomService.getRoomViews()).thenReturn(List.of(room));
+
+    // Act & Assert - no envelope, no null fields
+    mockMvc.perform(get("/api/v2/rooms"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1))
+            .andExpect(jsonPath("$[0].roomType").value("DELUXE"))
+            .andExpect(jsonPath("$[0].bookings").doesNotExist())
+            .andExpect(jsonPath("$.statusCode").doesNotExist());
+  }
+
+  @Test
+  public void testGetRoom_WithBookings() throws Exception {
+    // Arrange
+    BookingView booking = new BookingView(7L, LocalDate.of(2030, 1, 10), LocalDate.of(2030, 1, 12), 2, 0, 2, "ABC123");
+    when(roomService.findRoomDetail(1L)).thenReturn(Optional.of(new RoomDetail(room, List.of(booking))));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v2/rooms/1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.room.roomDescription").value("Luxury room with sea view"))
+            .andExpect(jsonPath("$.bookings[0].checkInDate").value("2030-01-10"))
+            .andExpect(jsonPath("$.bookings[0].bookingConfirmationCode").value("ABC123"));
+  }
+
+  @Test
+  public void testGetRoom_NotFoundIsAProblem() throws Exception {
+    // Arrange
+    when(roomService.findRoomDetail(99L)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v2/rooms/99"))
+            .andExpect(status().isNotFound())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.status").value(404))
+            .andExpect(jsonPath("$.detail").value("Room Not Found"))
+            .andExpect(jsonPath("$.instance").value("/api/v2/rooms/99"));
+  }
+
+  @Test
+  public void testGetAvailableRooms() throws Exception {
+    // Arrange
+    LocalDate checkIn = LocalDate.of(2030, 1, 10);
+    LocalDate checkOut = LocalDate.of(2030, 1, 12);
+    when(roomService.findAvailableRoomViews(checkIn, checkOut, "DELUXE")).thenReturn(List.of(room));
+
+    // Act & Assert
+    mockMvc.perform(get("/api/v2/rooms/available")
+                    .param("checkInDate", "2030-01-10")
+                    .param("checkOutDate", "2030-01-12")
+                    .param("roomType", "DELUXE"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(1));
+  }
+
+  @Test
+  public void testGetAvailableRooms_InvalidRequestsAreProblems() throws Exception {
+    // Act & Assert - dates out of order
+    mockMvc.perform(get("/api/v2/rooms/available")
+                    .param("checkInDate", "2030-01-12")
+                    .param("checkOutDate", "2030-01-10"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.detail").value("checkOutDate must not be before checkInDate"));
+
+    // Act & Assert - missing parameter, answered by the advice
+    mockMvc.perform(get("/api/v2/rooms/available").param("checkInDate", "2030-01-12"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.status").value(400));
+
+    // Act & Assert - malformed date
+    mockMvc.perform(get("/api/v2/rooms/available")
+                    .param("checkInDate", "tomorrow")
+                    .param("checkOutDate", "2030-01-12"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+
+    verify(roomService, never()).findAvailableRoomViews(any(), any(), any());
+  }
+}
@@ -0,0 +1,77 @@
+package com.phegondev.PhegonHotel.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 databases stand in for the primary and the replica; each holds a row naming itself.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+  private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+  private JdbcTemplate jdbcTemplate;
+  private TransactionTemplate readOnlyTransaction;
+  private TransactionTemplate readWriteTransaction;
+
+  @BeforeEach
+  public void setup() {
+    DataSource primary = h2("routing-primary");
+    DataSource replica = h2("routing-replica");
+    DataSource dataSource = new LazyConnectionDataSourceProxy(
+            new ReadWriteRoutingDataSource(primary, replica, replicaAvailable::get));
+
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    readWriteTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction = new TransactionTemplate(transactionManager);
+    readOnlyTransaction.setReadOnly(true);
+  }
+
+  @Test
+  public void testReadOnlyTransactionUsesReplica() {
+    assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+  }
+
+  @Test
+  public void testReadWriteTransactionUsesPrimary() {
+    assertEquals("primary", readWriteTransaction.execute(status -> currentDatabase()));
+  }
+
+  @Test
+  public void testNoTransactionUsesPrimary() {
+    assertEquals("primary", currentDatabase());
+  }
+
+  @Test
+  public void testUnavailableReplicaFallsBackToPrimary() {
+    // Arrange
+    replicaAvailable.set(false);
+
+    // Act & Assert
+    assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+  }
+
+  private String currentDatabase() {
+    return jdbcTemplate.queryForObject("SELECT name FROM which_database", String.class);
+  }
+
+  private static DataSource h2(String name) {
+    DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS which_database (name VARCHAR(20))");
+    jdbcTemplate.execute("DELETE FROM which_database");
+    jdbcTemplate.update("INSERT INTO which_database (name) VALUES (?)", name.substring(name.indexOf('-') + 1));
+    return dataSource;
+  }
+}
@@ -0,0 +1,106 @@
+package com.phegondev.PhegonHotel.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 databases stand in for the primary and the replica, each with the heartbeat table from the migration.
+ * Replication is simulated by copying the heartbeat row from one to the other.
+ */
+public class ReplicaLagMonitorTest {
+
+  private static final long MAX_LAG_MS = 2_000;
+
+  private JdbcTemplate primary;
+  private JdbcTemplate replica;
+  private ReplicaLagMonitor monitor;
+
+  @BeforeEach
+  public void setup() {
+    primary = h2("lag-primary");
+    replica = h2("lag-replica");
+    migrate(primary);
+    migrate(replica);
+    monitor = new ReplicaLagMonitor(primary.getDataSource(), replica.getDataSource(), MAX_LAG_MS);
+  }
+
+  @Test
+  public void testReplicaUnavailableUntilFirstHeartbeatReplicates() {
+    // Act
+    monitor.check();
+
+    // Assert
+    assertFalse(monitor.isReplicaAvailable());
+    assertEquals(-1, monitor.getLagMs());
+  }
+
+  @Test
+  public void testCaughtUpReplicaIsAvailable() {
+    // Arrange
+    monitor.check();
+    replicate();
+
+    // Act
+    monitor.check();
+
+    // Assert
+    assertTrue(monitor.isReplicaAvailable());
+    assertEquals(0, monitor.getLagMs());
+  }
+
+  @Test
+  public void testReplicaBeyondLagToleranceFallsBack() {
+    // Arrange - the replica saw a heartbeat, then the primary moved on by more than the tolerance
+    monitor.check();
+    replicate();
+    monitor.check();
+    primary.update("UPDATE replica_heartbeat SET beat_at = beat_at + ?", MAX_LAG_MS + 500);
+
+    // Act
+    monitor.check();
+
+    // Assert
+    assertFalse(monitor.isReplicaAvailable());
+    assertTrue(monitor.getLagMs() > MAX_LAG_MS);
+  }
+
+  @Test
+  public void testUnreachableReplicaFallsBack() {
+    // Arrange
+    monitor.check();
+    replicate();
+    monitor.check();
+    replica.execute("DROP TABLE replica_heartbeat");
+
+    // Act
+    monitor.check();
+
+    // Assert
+    assertFalse(monitor.isReplicaAvailable());
+    assertEquals(-1, monitor.getLagMs());
+  }
+
+  private void replicate() {
+    Long beat = primary.queryForObject("SELECT beat_at FROM replica_heartbeat WHERE id = 1", Long.class);
+    replica.update("DELETE FROM replica_heartbeat");
+    replica.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+  }
+
+  private static void migrate(JdbcTemplate jdbcTemplate) {
+    new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V5__replica_heartbeat.sql"))
+            .execute(jdbcTemplate.getDataSource());
+  }
+
+  private static JdbcTemplate h2(String name) {
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    jdbcTemplate.execute("DROP TABLE IF EXISTS replica_heartbeat");
+    return jdbcTemplate;
+  }
+}
@@ -0,0 +1,199 @@
+package com.phegondev.PhegonHotel.repo;
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.security.MetricsConfig;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
+import com.phegondev.PhegonHotel.service.impl.BookingService;
+import com.phegondev.PhegonHotel.service.impl.RoomService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Overlapping bookings of one room, committed from separate threads against a real database.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.datasource.url=jdbc:h2:mem:concurrencytestdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, MetricsConfig.class,
+        BookingService.class, RoomService.class, RoomCatalogVersion.class,
+        RoomPhotoUploads.class})
+public class BookingConcurrencyTest {
+
+  private static final int GUESTS = 8;
+  private static final LocalDate CHECK_IN = LocalDate.now().plusDays(10);
+  private static final LocalDate CHECK_OUT = LocalDate.now().plusDays(12);
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private EntityManager entityManager;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private Room room;
+  private final List<User> guests = new ArrayList<>();
+
+  @BeforeEach
+  public void setup() {
+    room = new Room();
+    room.setRoomType("DELUXE");
+    room.setRoomPrice(new BigDecimal("199.99"));
+    room = roomRepository.save(room);
+
+    for (int i = 0; i < GUESTS; i++) {
+      User guest = new User();
+      guest.setEmail("guest" + i + "@example.com");
+      guest.setName("Guest " + i);
+      guest.setPhoneNumber("123456789" + i);
+      guest.setPassword("password");
+      guest.setRole("USER");
+      guests.add(userRepository.save(guest));
+    }
+  }
+
+  @AfterEach
+  public void cleanup() {
+    jdbcTemplate.update("DELETE FROM bookings");
+    jdbcTemplate.update("DELETE FROM users");
+    jdbcTemplate.update("DELETE FROM rooms");
+  }
+
+  @Test
+  public void testStaleAvailabilityCheckCannotCommit() throws Exception {
+    // Arrange
+    TransactionTemplate staleTransaction = new TransactionTemplate(transactionManager);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    try {
+      // Act - a writer checks availability, then another booking of the room commits before it does
+      assertThrows(ObjectOptimisticLockingFailureException.class, () -> staleTransaction.executeWithoutResult(status -> {
+        Room staleRoom = entityManager.find(Room.class, room.getId());
+        entityManager.lock(staleRoom, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        assertTrue(staleRoom.getBookings().isEmpty());
+
+        Response competing = awaitQuietly(executor.submit(
+                () -> bookingService.saveBooking(room.getId(), guests.get(0).getId(), request())));
+        assertEquals(200, competing.getStatusCode());
+
+        Booking stale = request();
+        stale.setRoom(staleRoom);
+        stale.setUser(entityManager.find(User.class, guests.get(1).getId()));
+        stale.setBookingConfirmationCode("STALE00001");
+        entityManager.persist(stale);
+      }));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // Assert
+    assertEquals(1, bookingRepository.count());
+  }
+
+  @Test
+  public void testConcurrentOverlappingBookingsAdmitExactlyOne() throws Exception {
+    // Arrange
+    ExecutorService executor = Executors.newFixedThreadPool(GUESTS);
+    CyclicBarrier start = new CyclicBarrier(GUESTS);
+    List<Future<Response>> results = new ArrayList<>();
+
+    try {
+      // Act
+      for (User guest : guests) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return bookingService.saveBooking(room.getId(), guest.getId(), request());
+        }));
+      }
+
+      // Assert - every loser either saw the winner's booking on retry (404) or ran out of attempts (409)
+      int booked = 0;
+      for (Future<Response> result : results) {
+        int status = result.get().getStatusCode();
+        assertTrue(status == 200 || status == 404 || status == 409, "Unexpected status " + status);
+        booked += status == 200 ? 1 : 0;
+      }
+      assertEquals(1, booked);
+      assertEquals(1, bookingRepository.count());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Booking request() {
+    Booking booking = new Booking();
+    booking.setCheckInDate(CHECK_IN);
+    booking.setCheckOutDate(CHECK_OUT);
+    booking.setNumOfAdults(1);
+    booking.setTotalNumOfGuest(1);
+    return booking;
+  }
+
+  private static <T> T awaitQuietly(Future<T> future) {
+    try {
+      return future.get();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.phegondev.PhegonHotel.dto.BookingDTO;
 import com.phegondev.PhegonHotel.entity.Booking;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
@@ -19,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -26,7 +28,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @TestPropertySource(properties = {
-        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
         "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
         "spring.datasource.driverClassName=org.h2.Driver",
         "spring.datasource.username=sa",
@@ -163,6 +167,42 @@ public class BookingRepositoryTest {
     assertFalse(deletedBooking.isPresent());
   }
 
+  @Test
+  public void testDeleteAllByRoomIdInBulk_RemovesOnlyThatRoomsBookings() {
+    // Arrange
+    Room otherRoom = new Room();
+    otherRoom.setRoomType("SUITE");
+    otherRoom.setRoomPrice(new BigDecimal("299.99"));
+    entityManager.persist(otherRoom);
+    Booking otherBooking = new Booking();
+    otherBooking.setCheckInDate(LocalDate.now().plusDays(1));
+    otherBooking.setCheckOutDate(LocalDate.now().plusDays(3));
+    otherBooking.setNumOfAdults(1);
+    otherBooking.setTotalNumOfGuest(1);
+    otherBooking.setBookingConfirmationCode("EFGH5678");
+    otherBooking.setRoom(otherRoom);
+    otherBooking.setUser(testUser);
+    entityManager.persist(otherBooking);
+
+    // Act
+    int deleted = bookingRepository.deleteAllByRoomIdInBulk(testRoom.getId());
+
+    // Assert
+    assertEquals(1, deleted);
+    assertFalse(bookingRepository.existsById(testBooking.getId()));
+    assertTrue(bookingRepository.existsById(otherBooking.getId()));
+  }
+
+  @Test
+  public void testDeleteAllByUserIdInBulk_Success() {
+    // Act
+    int deleted = bookingRepository.deleteAllByUserIdInBulk(testUser.getId());
+
+    // Assert
+    assertEquals(1, deleted);
+    assertEquals(0, bookingRepository.count());
+  }
+
   @Test
   public void testFindAll_Success() {
     // Arrange
@@ -211,4 +251,34 @@ public class BookingRepositoryTest {
     assertEquals("EFG5678", bookings.get(0).getBookingConfirmationCode());
     assertEquals("ABCD1234", bookings.get(1).getBookingConfirmationCode());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testFindAllBookingDTOs_SelectsBookingColumnsOnly() {
+    // Act
+    List<BookingDTO> bookings = bookingRepository.findAllBookingDTOs();
+
+    // Assert
+    assertEquals(1, bookings.size());
+    assertEquals(testBooking.getId(), bookings.get(0).getId());
+    assertEquals("ABCD1234", bookings.get(0).getBookingConfirmationCode());
+    assertEquals(testBooking.getCheckInDate(), bookings.get(0).getCheckInDate());
+    assertEquals(testBooking.getTotalNumOfGuest(), bookings.get(0).getTotalNumOfGuest());
+    assertNull(bookings.get(0).getUser());
+    assertNull(bookings.get(0).getRoom());
+  }
+
+  @Test
+  public void testStreamAllBookingDTOs_MatchesListQuery() {
+    // Act
+    List<BookingDTO> streamed;
+    try (Stream<BookingDTO> stream = bookingRepository.streamAllBookingDTOs()) {
+      streamed = stream.toList();
+    }
+
+    // Assert
+    List<BookingDTO> listed = bookingRepository.findAllBookingDTOs();
+    assertEquals(listed.size(), streamed.size());
+    assertEquals(listed.get(0).getId(), streamed.get(0).getId());
+    assertEquals("ABCD1234", streamed.get(0).getBookingConfirmationCode());
+  }
+}
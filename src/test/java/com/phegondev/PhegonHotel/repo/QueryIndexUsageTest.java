@@ -0,0 +1,202 @@
+package com.phegondev.PhegonHotel.repo;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL each repository query actually issues against the schema built by the
+ * Flyway migrations, and checks that the tables it filters, joins or orders on are read through an index.
+ * H2 and MySQL plan differently, so this guards against a query or migration change that leaves a lookup
+ * without any usable index; it does not pin the exact index MySQL will choose.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.datasource.url=jdbc:h2:mem:explaindb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, QueryIndexUsageTest.Config.class})
+public class QueryIndexUsageTest {
+
+  @TestConfiguration
+  static class Config {
+    @Bean
+    public RecordingStatementInspector recordingStatementInspector() {
+      return new RecordingStatementInspector();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(RecordingStatementInspector inspector) {
+      return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+  }
+
+  static class RecordingStatementInspector implements StatementInspector {
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+      statements.add(sql);
+      return sql;
+    }
+  }
+
+  @Autowired
+  private RecordingStatementInspector inspector;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @BeforeEach
+  public void setup() {
+    inspector.statements.clear();
+  }
+
+  @Test
+  public void testFindByBookingConfirmationCodeUsesIndexes() {
+    String plan = explain(() -> bookingRepository.findByBookingConfirmationCode("ABC123"));
+
+    assertTrue(plan.contains("UK_BOOKINGS_CONFIRMATION_CODE"), plan);
+    assertNoTableScan(plan, "BOOKINGS", "ROOMS", "USERS");
+  }
+
+  @Test
+  public void testFindAllBookingDTOsIsIndexSorted() {
+    String plan = explain(() -> bookingRepository.findAllBookingDTOs());
+
+    assertTrue(plan.contains("index sorted"), plan);
+  }
+
+  @Test
+  public void testFindAllRoomDTOsIsIndexSorted() {
+    String plan = explain(() -> roomRepository.findAllRoomDTOs());
+
+    assertTrue(plan.contains("index sorted"), plan);
+  }
+
+  @Test
+  public void testFindDistinctRoomTypesUsesIndex() {
+    String plan = explain(() -> roomRepository.findDistinctRoomTypes());
+
+    assertTrue(plan.contains("IDX_ROOMS_ROOM_TYPE"), plan);
+  }
+
+  @Test
+  public void testFindAvailableRoomsByDatesAndTypesUsesIndexForBookings() {
+    // Rooms are matched with LIKE '%type%', which no index can serve; the overlap check must not scan bookings.
+    // Either the room/date index or the check-out index can serve it, depending on the planner
+    String plan = explain(() -> roomRepository.findAvailableRoomsByDatesAndTypes(
+            LocalDate.now(), LocalDate.now().plusDays(2), "DELUXE"));
+
+    assertNoTableScan(plan, "BOOKINGS");
+  }
+
+  @Test
+  public void testGetAllAvailableRoomsUsesIndexForBookings() {
+    String plan = explain(() -> roomRepository.getAllAvailableRooms());
+
+    assertNoTableScan(plan, "BOOKINGS");
+  }
+
+  @Test
+  public void testEmailLookupsUseUniqueIndex() {
+    assertTrue(explain(() -> userRepository.findByEmail("a@example.com")).contains("UK_USERS_EMAIL"));
+    assertTrue(explain(() -> userRepository.existsByEmail("a@example.com")).contains("UK_USERS_EMAIL"));
+    assertTrue(explain(() -> userRepository.findExistingEmails(List.of("a@example.com", "b@example.com")))
+            .contains("UK_USERS_EMAIL"));
+  }
+
+  @Test
+  public void testFindBookingHistoryUsesIndexes() {
+    String plan = explain(() -> userRepository.findBookingHistory(1L, PageRequest.of(0, 10)));
+
+    assertNoTableScan(plan, "USERS", "BOOKINGS", "BOOKINGS_ARCHIVE", "ROOMS");
+  }
+
+  @Test
+  public void testRefreshTokenQueriesUseIndexes() {
+    String lookupPlan = explain(() -> refreshTokenRepository.findByTokenHash("hash"));
+    String revokePlan = explain(() -> refreshTokenRepository.revokeFamily("family"));
+
+    assertTrue(lookupPlan.contains("UK_REFRESH_TOKENS_TOKEN_HASH"), lookupPlan);
+    assertNoTableScan(lookupPlan, "REFRESH_TOKENS", "USERS");
+    assertTrue(revokePlan.contains("IDX_REFRESH_TOKENS_FAMILY"), revokePlan);
+  }
+
+  /**
+   * Runs the repository call, then explains the single statement it sent. Parameters are bound as null;
+   * H2 plans the statement when it is prepared, so the values do not change the chosen indexes.
+   */
+  private String explain(Runnable repositoryCall) {
+    inspector.statements.clear();
+    repositoryCall.run();
+    assertEquals(1, inspector.statements.size(), () -> "Expected one statement but got " + inspector.statements);
+    String sql = inspector.statements.get(0);
+
+    return jdbcTemplate.execute((Connection connection) -> {
+      try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+        int parameterCount = statement.getParameterMetaData().getParameterCount();
+        for (int i = 1; i <= parameterCount; i++) {
+          statement.setObject(i, null);
+        }
+        try (ResultSet resultSet = statement.executeQuery()) {
+          resultSet.next();
+          return resultSet.getString(1);
+        }
+      }
+    });
+  }
+
+  private static void assertNoTableScan(String plan, String... tables) {
+    for (String table : tables) {
+      assertFalse(plan.contains("PUBLIC." + table + ".tableScan"), () -> table + " is scanned:\n" + plan);
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.phegondev.PhegonHotel.repo;
+
+import com.phegondev.PhegonHotel.entity.RefreshToken;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.service.RefreshTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refreshes with the same token, committed from separate threads against a real database.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.datasource.url=jdbc:h2:mem:refreshtokentestdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, RefreshTokenService.class})
+public class RefreshTokenConcurrencyTest {
+
+  private static final int ROUNDS = 20;
+
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  private User user;
+
+  @BeforeEach
+  public void setup() {
+    user = new User();
+    user.setEmail("guest@example.com");
+    user.setName("Guest");
+    user.setPhoneNumber("1234567890");
+    user.setPassword("password");
+    user.setRole("USER");
+    user = userRepository.save(user);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    jdbcTemplate.update("DELETE FROM refresh_tokens");
+    jdbcTemplate.update("DELETE FROM users");
+  }
+
+  @Test
+  public void testConcurrentRefreshWithOneTokenRevokesTheFamily() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      for (int round = 0; round < ROUNDS; round++) {
+        // Arrange
+        String rawToken = refreshTokenService.issue(user);
+        CyclicBarrier start = new CyclicBarrier(2);
+        List<Future<RefreshTokenService.Rotation>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 2; i++) {
+          results.add(executor.submit(() -> {
+            start.await();
+            return refreshTokenService.rotate(rawToken);
+          }));
+        }
+
+        // Assert - one refresh rotates, the other is treated as reuse and takes the new token down with it
+        int rotated = 0;
+        for (Future<RefreshTokenService.Rotation> result : results) {
+          try {
+            result.get();
+            rotated++;
+          } catch (ExecutionException e) {
+            assertInstanceOf(OurException.class, e.getCause());
+            assertEquals("Refresh token reuse detected", e.getCause().getMessage());
+          }
+        }
+        assertEquals(1, rotated, "round " + round);
+        assertTrue(refreshTokenRepository.findAll().stream().allMatch(RefreshToken::isRevoked),
+                "round " + round + " left a live token in the family");
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
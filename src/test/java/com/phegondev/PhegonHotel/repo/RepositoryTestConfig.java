@@ -1,12 +1,17 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.amazonaws.services.s3.AmazonS3;
 import com.phegondev.PhegonHotel.service.AwsS3Service;
 import com.phegondev.PhegonHotel.service.CustomUserDetailsService;
 import com.phegondev.PhegonHotel.utils.JWTUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.authentication.AuthenticationManager;
 
+import java.util.concurrent.Executor;
+
 import static org.mockito.Mockito.mock;
 
 @TestConfiguration
@@ -17,11 +22,26 @@ public class RepositoryTestConfig {
     return mock(JWTUtils.class);
   }
 
+  @Bean
+  public MeterRegistry meterRegistry() {
+    return new SimpleMeterRegistry();
+  }
+
+  @Bean
+  public AmazonS3 amazonS3() {
+    return mock(AmazonS3.class);
+  }
+
   @Bean
   public AwsS3Service awsS3Service() {
     return mock(AwsS3Service.class);
   }
 
+  @Bean
+  public Executor roomPhotoUploadExecutor() {
+    return mock(Executor.class);
+  }
+
   @Bean
   public CustomUserDetailsService customUserDetailsService() {
     return mock(CustomUserDetailsService.class);
@@ -1,5 +1,8 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.v2.BookingView;
+import com.phegondev.PhegonHotel.dto.v2.RoomView;
 import com.phegondev.PhegonHotel.entity.Booking;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
@@ -16,6 +19,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,7 +29,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @TestPropertySource(properties = {
-        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
         "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
         "spring.datasource.driverClassName=org.h2.Driver",
         "spring.datasource.username=sa",
@@ -267,4 +273,118 @@ public class RoomRepositoryTest {
     Optional<Room> deletedRoom = roomRepository.findById(standardRoom.getId());
     assertFalse(deletedRoom.isPresent());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testFindAllRoomDTOs_NewestFirst() {
+    // Act
+    List<RoomDTO> rooms = roomRepository.findAllRoomDTOs();
+
+    // Assert
+    assertEquals(3, rooms.size());
+    assertEquals(suiteRoom.getId(), rooms.get(0).getId());
+    assertEquals("SUITE", rooms.get(0).getRoomType());
+    assertEquals(0, new BigDecimal("299.99").compareTo(rooms.get(0).getRoomPrice()));
+    assertEquals("https://example.com/suite.jpg", rooms.get(0).getRoomPhotoUrl());
+    assertNull(rooms.get(0).getBookings());
+  }
+
+  @Test
+  public void testFindAllRoomViews_NewestFirst() {
+    // Act
+    List<RoomView> rooms = roomRepository.findAllRoomViews();
+
+    // Assert
+    assertEquals(3, rooms.size());
+    assertEquals(new RoomView(suiteRoom.getId(), "SUITE", new BigDecimal("299.99"),
+            "https://example.com/suite.jpg", "Suite with sea view"), rooms.get(0));
+  }
+
+  @Test
+  public void testFindAvailableRoomViews_MatchesEntityQuery() {
+    // Arrange
+    Booking booking = new Booking();
+    booking.setCheckInDate(LocalDate.now().plusDays(2));
+    booking.setCheckOutDate(LocalDate.now().plusDays(4));
+    booking.setNumOfAdults(2);
+    booking.setBookingConfirmationCode("VIEW1234");
+    booking.setRoom(deluxeRoom);
+    booking.setUser(testUser);
+    entityManager.persist(booking);
+    entityManager.flush();
+    LocalDate checkInDate = LocalDate.now().plusDays(1);
+    LocalDate checkOutDate = LocalDate.now().plusDays(3);
+
+    // Act
+    List<RoomView> rooms = roomRepository.findAvailableRoomViews(checkInDate, checkOutDate, "");
+
+    // Assert
+    List<Long> expected = roomRepository.findAvailableRoomsByDatesAndTypes(checkInDate, checkOutDate, "")
+            .stream().map(Room::getId).sorted(Comparator.reverseOrder()).toList();
+    assertEquals(expected, rooms.stream().map(RoomView::id).toList());
+    assertEquals(List.of(suiteRoom.getId(), standardRoom.getId()), rooms.stream().map(RoomView::id).toList());
+  }
+
+  @Test
+  public void testFindBookingViewsByRoomId() {
+    // Arrange
+    for (int i = 0; i < 2; i++) {
+      Booking booking = new Booking();
+      booking.setCheckInDate(LocalDate.now().plusDays(10 - i * 5));
+      booking.setCheckOutDate(LocalDate.now().plusDays(11 - i * 5));
+      booking.setNumOfAdults(1);
+      booking.setNumOfChildren(1);
+      booking.setBookingConfirmationCode("ROOMVIEW" + i);
+      booking.setRoom(standardRoom);
+      booking.setUser(testUser);
+      entityManager.persist(booking);
+    }
+    entityManager.flush();
+
+    // Act
+    List<BookingView> bookings = bookingRepository.findBookingViewsByRoomId(standardRoom.getId());
+
+    // Assert - ordered by check-in date
+    assertEquals(List.of("ROOMVIEW1", "ROOMVIEW0"),
+            bookings.stream().map(BookingView::bookingConfirmationCode).toList());
+    assertEquals(2, bookings.get(0).totalNumOfGuest());
+    assertTrue(bookingRepository.findBookingViewsByRoomId(suiteRoom.getId()).isEmpty());
+  }
+
+  @Test
+  public void testUpdateRoomPhotoUrl() {
+    // Arrange
+    Long version = standardRoom.getVersion();
+
+    // Act
+    int updated = roomRepository.updateRoomPhotoUrl(standardRoom.getId(), "https://example.com/new.jpg");
+    int missing = roomRepository.updateRoomPhotoUrl(-1L, "https://example.com/new.jpg");
+
+    // Assert - the version is left alone so an edit in flight is not rejected
+    assertEquals(1, updated);
+    assertEquals(0, missing);
+    Room room = roomRepository.findById(standardRoom.getId()).orElseThrow();
+    assertEquals("https://example.com/new.jpg", room.getRoomPhotoUrl());
+    assertEquals(version, room.getVersion());
+    assertEquals("Standard room", room.getRoomDescription());
+  }
+
+  @Test
+  public void testEditingARoomKeepsAPhotoStoredMeanwhile() {
+    // Arrange - the room was loaded before the upload stored its photo
+    Room loaded = entityManager.find(Room.class, standardRoom.getId());
+    entityManager.getEntityManager()
+            .createNativeQuery("UPDATE rooms SET room_photo_url = 'https://example.com/new.jpg' WHERE id = :id")
+            .setParameter("id", standardRoom.getId())
+            .executeUpdate();
+
+    // Act
+    loaded.setRoomDescription("Renovated standard room");
+    entityManager.flush();
+    entityManager.clear();
+
+    // Assert
+    Room room = roomRepository.findById(standardRoom.getId()).orElseThrow();
+    assertEquals("Renovated standard room", room.getRoomDescription());
+    assertEquals("https://example.com/new.jpg", room.getRoomPhotoUrl());
+  }
+}
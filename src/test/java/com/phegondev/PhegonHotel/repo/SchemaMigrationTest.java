@@ -0,0 +1,49 @@
+package com.phegondev.PhegonHotel.repo;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database as the application left it before Flyway (the ddl-auto schema with data in it) the way a
+ * first start does: baselined at version 1, then migrated.
+ */
+public class SchemaMigrationTest {
+
+  @Test
+  public void testDdlAutoDatabaseIsBaselinedAndMigrated() {
+    // Arrange - version 1 is exactly what ddl-auto created, ids from AUTO_INCREMENT
+    DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:schemamigrationtestdb;DB_CLOSE_DELAY=-1", "sa", "");
+    new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline_schema.sql")).execute(dataSource);
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.update("INSERT INTO rooms (room_type) VALUES ('SUITE'), ('DELUXE')");
+    jdbcTemplate.update("INSERT INTO users (email, name, phone_number, password, role) VALUES ('a@example.com', 'A', '1', 'p', 'USER')");
+
+    // Act
+    Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration/h2")
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load()
+            .migrate();
+
+    // Assert - the id generators continue after the existing rows
+    assertEquals(3L, nextVal(jdbcTemplate, "rooms"));
+    assertEquals(2L, nextVal(jdbcTemplate, "users"));
+    assertEquals(1L, nextVal(jdbcTemplate, "bookings"));
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class));
+  }
+
+  private static Long nextVal(JdbcTemplate jdbcTemplate, String sequenceName) {
+    return jdbcTemplate.queryForObject("SELECT next_val FROM id_generators WHERE sequence_name = ?", Long.class,
+            sequenceName);
+  }
+}
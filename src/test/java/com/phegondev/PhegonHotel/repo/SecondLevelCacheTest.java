@@ -0,0 +1,148 @@
+package com.phegondev.PhegonHotel.repo;
+
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every repository call below runs in its own transaction, like separate requests would, so entries put by
+ * one call are visible to the next.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.datasource.url=jdbc:h2:mem:cachetestdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import(RepositoryTestConfig.class)
+public class SecondLevelCacheTest {
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Statistics statistics;
+  private Room room;
+
+  @BeforeEach
+  public void setup() {
+    room = new Room();
+    room.setRoomType("DELUXE");
+    room.setRoomPrice(new BigDecimal("199.99"));
+    room.setRoomDescription("Deluxe room");
+    room = roomRepository.save(room);
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    entityManagerFactory.getCache().evictAll();
+    statistics.clear();
+  }
+
+  @AfterEach
+  public void cleanup() {
+    roomRepository.deleteAll();
+    userRepository.deleteAll();
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  public void testRoomFindById_SecondReadComesFromCache() {
+    // Act
+    roomRepository.findById(room.getId());
+    long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+    Room cached = roomRepository.findById(room.getId()).orElseThrow();
+
+    // Assert
+    assertEquals("DELUXE", cached.getRoomType());
+    assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    assertEquals(1, statistics.getDomainDataRegionStatistics("rooms").getHitCount());
+    assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testRoomUpdate_IsVisibleThroughCache() {
+    // Arrange
+    Room loaded = roomRepository.findById(room.getId()).orElseThrow();
+    loaded.setRoomPrice(new BigDecimal("249.99"));
+
+    // Act
+    roomRepository.save(loaded);
+    Room reloaded = roomRepository.findById(room.getId()).orElseThrow();
+
+    // Assert
+    assertEquals(0, new BigDecimal("249.99").compareTo(reloaded.getRoomPrice()));
+  }
+
+  @Test
+  public void testUserFindById_SecondReadComesFromCache() {
+    // Arrange
+    User user = new User();
+    user.setEmail("cached@example.com");
+    user.setName("Cached User");
+    user.setPhoneNumber("1234567890");
+    user.setPassword("password");
+    user.setRole("USER");
+    user = userRepository.save(user);
+    entityManagerFactory.getCache().evictAll();
+    statistics.clear();
+
+    // Act
+    userRepository.findById(user.getId());
+    userRepository.findById(user.getId());
+
+    // Assert
+    assertEquals(1, statistics.getDomainDataRegionStatistics("users").getMissCount());
+    assertEquals(1, statistics.getDomainDataRegionStatistics("users").getHitCount());
+  }
+
+  @Test
+  public void testRoomTypesQuery_CachedUntilRoomsChange() {
+    // Act
+    roomRepository.findDistinctRoomTypes();
+    roomRepository.findDistinctRoomTypes();
+    long hitsBeforeWrite = statistics.getQueryCacheHitCount();
+
+    Room suite = new Room();
+    suite.setRoomType("SUITE");
+    suite.setRoomPrice(new BigDecimal("299.99"));
+    roomRepository.save(suite);
+
+    // Assert
+    assertEquals(1, hitsBeforeWrite);
+    assertTrue(roomRepository.findDistinctRoomTypes().contains("SUITE"));
+    assertEquals(1, statistics.getQueryCacheHitCount());
+  }
+}
@@ -0,0 +1,185 @@
+package com.phegondev.PhegonHotel.repo;
+
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.security.MetricsConfig;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
+import com.phegondev.PhegonHotel.service.impl.BookingService;
+import com.phegondev.PhegonHotel.service.impl.RoomService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the number of SQL statements each booking endpoint issues, so an eager association or a lazy
+ * load inside a mapping loop shows up as a failing test instead of an N+1 in production.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, MetricsConfig.class,
+        BookingService.class, RoomService.class, RoomCatalogVersion.class,
+        RoomPhotoUploads.class})
+public class StatementCountTest {
+
+  private static final int BOOKINGS_PER_ROOM = 5;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private BookingService bookingService;
+
+  @Autowired
+  private RoomService roomService;
+
+  private Statistics statistics;
+  private Room room;
+  private User guest;
+  private String confirmationCode;
+
+  @BeforeEach
+  public void setup() {
+    room = new Room();
+    room.setRoomType("Deluxe");
+    room.setRoomPrice(new BigDecimal("150.00"));
+    room.setRoomDescription("Deluxe room");
+    entityManager.persist(room);
+
+    // Every booking has its own guest, so loading guests per booking would cost one statement each
+    for (int i = 0; i < BOOKINGS_PER_ROOM; i++) {
+      User user = new User();
+      user.setEmail("guest" + i + "@example.com");
+      user.setName("Guest " + i);
+      user.setPhoneNumber("123456789" + i);
+      user.setPassword("password");
+      user.setRole("USER");
+      entityManager.persist(user);
+
+      Booking booking = new Booking();
+      booking.setCheckInDate(LocalDate.now().plusDays(i * 3L + 1));
+      booking.setCheckOutDate(LocalDate.now().plusDays(i * 3L + 2));
+      booking.setNumOfAdults(1);
+      booking.setNumOfChildren(0);
+      booking.setTotalNumOfGuest(1);
+      booking.setBookingConfirmationCode("CODE" + i);
+      booking.setRoom(room);
+      booking.setUser(user);
+      entityManager.persist(booking);
+
+      guest = user;
+      confirmationCode = booking.getBookingConfirmationCode();
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  public void testGetAllBookings_SingleStatement() {
+    // Act
+    Response response = bookingService.getAllBookings();
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals(BOOKINGS_PER_ROOM, response.getBookingList().size());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testFindBookingByConfirmationCode_FetchesUserAndRoomInOneStatement() {
+    // Act
+    Response response = bookingService.findBookingByConfirmationCode(confirmationCode);
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals(guest.getEmail(), response.getBooking().getUser().getEmail());
+    assertEquals(room.getId(), response.getBooking().getRoom().getId());
+    assertEquals(1, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testGetRoomById_DoesNotLoadGuests() {
+    // Act
+    Response response = roomService.getRoomById(room.getId());
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals(BOOKINGS_PER_ROOM, response.getRoom().getBookings().size());
+    assertEquals(2, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testSaveBooking_AvailabilityCheckDoesNotLoadGuests() {
+    // Arrange
+    Booking request = new Booking();
+    request.setCheckInDate(LocalDate.now().plusDays(100));
+    request.setCheckOutDate(LocalDate.now().plusDays(102));
+    request.setNumOfAdults(2);
+    request.setNumOfChildren(0);
+
+    // Act
+    Response response = bookingService.saveBooking(room.getId(), guest.getId(), request);
+    entityManager.flush();
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    // room, user, the room's bookings and the insert; the id comes from the block reserved during setup and the
+    // room version is only bumped when the transaction commits
+    assertEquals(4, statistics.getPrepareStatementCount());
+  }
+
+  @Test
+  public void testDeleteRoom_DoesNotLoadBookings() {
+    // Act
+    Response response = roomService.deleteRoom(room.getId());
+    entityManager.flush();
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    // existence check, the bulk booking delete, loading the room, its now empty booking collection and the room
+    // delete; the same five however many bookings the room had
+    assertEquals(5, statistics.getPrepareStatementCount());
+    assertEquals(1, statistics.getEntityLoadCount());
+    assertNull(entityManager.find(Room.class, room.getId()));
+  }
+}
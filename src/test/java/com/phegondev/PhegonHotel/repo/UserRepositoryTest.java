@@ -1,5 +1,9 @@
 package com.phegondev.PhegonHotel.repo;
 
+import com.phegondev.PhegonHotel.dto.UserDTO;
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,9 +12,14 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,7 +34,9 @@ import static org.junit.jupiter.api.Assertions.*;
         "spring.datasource.username=sa",
         "spring.datasource.password=",
         "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
-        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
         "SPRING_APPLICATION_NAME=test-app",
         "aws.s3.bucket.name=test-bucket",
         "aws.s3.access.key=test-key",
@@ -204,4 +215,109 @@ public class UserRepositoryTest {
     assertTrue(users.stream().anyMatch(u -> u.getEmail().equals("first@example.com")));
     assertTrue(users.stream().anyMatch(u -> u.getEmail().equals("second@example.com")));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testFindExistingEmails_ReturnsOnlyMatches() {
+    // Arrange
+    User testUser = new User();
+    testUser.setEmail("taken@example.com");
+    testUser.setName("Taken User");
+    testUser.setPhoneNumber("1234567890");
+    testUser.setPassword("password");
+    testUser.setRole("USER");
+    entityManager.persist(testUser);
+    entityManager.flush();
+
+    // Act
+    List<String> existing = userRepository.findExistingEmails(List.of("taken@example.com", "free@example.com"));
+
+    // Assert
+    assertEquals(List.of("taken@example.com"), existing);
+  }
+
+  @Test
+  public void testFindBookingHistory_JoinsBookingsAndRooms() {
+    // Arrange
+    User guest = new User();
+    guest.setEmail("guest@example.com");
+    guest.setName("Guest");
+    guest.setPhoneNumber("1234567890");
+    guest.setPassword("password");
+    guest.setRole("USER");
+    entityManager.persist(guest);
+
+    Room room = new Room();
+    room.setRoomType("DELUXE");
+    room.setRoomPrice(new BigDecimal("199.99"));
+    entityManager.persist(room);
+
+    for (int i = 0; i < 3; i++) {
+      Booking booking = new Booking();
+      booking.setCheckInDate(LocalDate.now().plusDays(10L * i));
+      booking.setCheckOutDate(LocalDate.now().plusDays(10L * i + 2));
+      booking.setNumOfAdults(1);
+      booking.setBookingConfirmationCode("HIST" + i);
+      booking.setUser(guest);
+      booking.setRoom(room);
+      entityManager.persist(booking);
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    // Act
+    Slice<UserBookingHistoryRow> all = userRepository.findBookingHistory(guest.getId(), Pageable.unpaged());
+    Slice<UserBookingHistoryRow> firstPage = userRepository.findBookingHistory(guest.getId(), PageRequest.of(0, 2));
+
+    // Assert - newest check-in first, room columns carried on every row
+    assertEquals(3, all.getContent().size());
+    assertEquals("HIST2", all.getContent().get(0).getBookingConfirmationCode());
+    assertEquals("DELUXE", all.getContent().get(0).getRoomType());
+    assertEquals("guest@example.com", all.getContent().get(0).getUserEmail());
+    assertEquals(2, firstPage.getContent().size());
+    assertTrue(firstPage.hasNext());
+  }
+
+  @Test
+  public void testFindBookingHistory_UserWithoutBookings() {
+    // Arrange
+    User guest = new User();
+    guest.setEmail("nobookings@example.com");
+    guest.setName("No Bookings");
+    guest.setPhoneNumber("1234567890");
+    guest.setPassword("password");
+    guest.setRole("USER");
+    entityManager.persist(guest);
+    entityManager.flush();
+
+    // Act
+    List<UserBookingHistoryRow> rows = userRepository.findBookingHistory(guest.getId(), Pageable.unpaged()).getContent();
+
+    // Assert
+    assertEquals(1, rows.size());
+    assertNull(rows.get(0).getBookingId());
+  }
+
+  @Test
+  public void testFindAllUserDTOs() {
+    // Arrange
+    User user = new User();
+    user.setEmail("listed@example.com");
+    user.setName("Listed User");
+    user.setPhoneNumber("1234567890");
+    user.setPassword("password");
+    user.setRole("ADMIN");
+    entityManager.persist(user);
+    entityManager.flush();
+
+    // Act
+    List<UserDTO> users = userRepository.findAllUserDTOs();
+
+    // Assert
+    assertEquals(1, users.size());
+    assertEquals(user.getId(), users.get(0).getId());
+    assertEquals("listed@example.com", users.get(0).getEmail());
+    assertEquals("Listed User", users.get(0).getName());
+    assertEquals("ADMIN", users.get(0).getRole());
+    assertTrue(users.get(0).getBookings().isEmpty());
+  }
+}
@@ -0,0 +1,54 @@
+package com.phegondev.PhegonHotel.security;
+
+import com.phegondev.PhegonHotel.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSourceConfigTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+          .withUserConfiguration(DataSourceConfig.class)
+          .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+          .withPropertyValues(
+                  "spring.datasource.url=jdbc:h2:mem:config-primary;DB_CLOSE_DELAY=-1",
+                  "spring.datasource.username=sa",
+                  "spring.datasource.password=",
+                  "spring.datasource.driver-class-name=org.h2.Driver");
+
+  @Test
+  public void testWithoutReplicaUrlSinglePoolIsUsed() {
+    contextRunner
+            .withPropertyValues("app.datasource.replica.url=")
+            .run(context -> {
+              assertFalse(context.containsBean("replicaDataSource"));
+              assertFalse(context.getBeansOfType(ReplicaLagMonitor.class).size() > 0);
+              assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+            });
+  }
+
+  @Test
+  public void testWithReplicaUrlRoutingDataSourceIsPrimary() {
+    contextRunner
+            .withPropertyValues("app.datasource.replica.url=jdbc:h2:mem:config-replica;DB_CLOSE_DELAY=-1")
+            .run(context -> {
+              assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+              HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+              assertEquals("replica", replica.getPoolName());
+              assertTrue(replica.isReadOnly());
+              assertEquals("sa", replica.getUsername());
+              assertEquals("primary", context.getBean("primaryDataSource", HikariDataSource.class).getPoolName());
+              assertNotNull(context.getBean(MeterRegistry.class).find("app.datasource.replica.lag").gauge());
+            });
+  }
+}
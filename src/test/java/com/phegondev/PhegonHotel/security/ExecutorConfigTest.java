@@ -0,0 +1,53 @@
+package com.phegondev.PhegonHotel.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecutorConfigTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+          .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+          .withUserConfiguration(ExecutorConfig.class);
+
+  @Test
+  public void testApplicationTaskExecutorSurvivesTheDedicatedPools() {
+    contextRunner
+            .withPropertyValues(
+                    "spring.task.execution.thread-name-prefix=app-task-",
+                    "spring.task.execution.pool.core-size=3")
+            .run(context -> {
+              ThreadPoolTaskExecutor executor = context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class);
+              assertSame(executor, context.getBean("taskExecutor"));
+              assertEquals("app-task-", executor.getThreadNamePrefix());
+              assertEquals(3, executor.getCorePoolSize());
+              assertTrue(context.containsBean("passwordHashingExecutor"));
+              assertTrue(context.containsBean("roomPhotoUploadExecutor"));
+            });
+  }
+
+  @Test
+  @EnabledForJreRange(min = JRE.JAVA_21)
+  public void testPhotoUploadsRunOnVirtualThreadsWhenEnabled() {
+    contextRunner
+            .withPropertyValues("spring.threads.virtual.enabled=true")
+            .run(context -> {
+              ThreadPoolTaskExecutor executor = context.getBean("roomPhotoUploadExecutor", ThreadPoolTaskExecutor.class);
+
+              // Act - the test sources target Java 17, so Thread.isVirtual is called reflectively
+              Object virtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get();
+
+              // Assert
+              assertEquals(Boolean.TRUE, virtual);
+              assertEquals(4, executor.getMaxPoolSize());
+              assertEquals(Boolean.FALSE, context.getBean("passwordHashingExecutor", ThreadPoolTaskExecutor.class)
+                      .submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())).get());
+            });
+  }
+}
@@ -0,0 +1,164 @@
+package com.phegondev.PhegonHotel.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PoolBackpressureFilterTest {
+
+  @Mock
+  private ObjectProvider<HikariDataSource> pools;
+
+  @Mock
+  private HikariDataSource primary;
+
+  @Mock
+  private HikariDataSource replica;
+
+  @Mock
+  private HikariPoolMXBean primaryPool;
+
+  @Mock
+  private HikariPoolMXBean replicaPool;
+
+  @Mock
+  private FilterChain filterChain;
+
+  @InjectMocks
+  private PoolBackpressureFilter poolBackpressureFilter;
+
+  private SimpleMeterRegistry meterRegistry;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    response = new MockHttpServletResponse();
+    ReflectionTestUtils.setField(poolBackpressureFilter, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(poolBackpressureFilter, "enabled", true);
+    ReflectionTestUtils.setField(poolBackpressureFilter, "maxPending", 5);
+    ReflectionTestUtils.setField(poolBackpressureFilter, "retryAfterSeconds", 2);
+  }
+
+  @Test
+  public void testBookingPassesWhilePoolKeepsUp() throws Exception {
+    // Arrange
+    givenPools(primary);
+    when(primary.getHikariPoolMXBean()).thenReturn(primaryPool);
+    when(primaryPool.getThreadsAwaitingConnection()).thenReturn(5);
+    MockHttpServletRequest request = request("POST", "/api/bookings/book-room/1/2");
+
+    // Act
+    poolBackpressureFilter.doFilter(request, response, filterChain);
+
+    // Assert
+    verify(filterChain).doFilter(request, response);
+    assertEquals(200, response.getStatus());
+  }
+
+  @Test
+  public void testBookingRejectedWhenTooManyThreadsWaitForConnection() throws Exception {
+    // Arrange
+    givenPools(primary);
+    when(primary.getHikariPoolMXBean()).thenReturn(primaryPool);
+    when(primaryPool.getThreadsAwaitingConnection()).thenReturn(6);
+    MockHttpServletRequest request = request("POST", "/api/bookings/book-room/1/2");
+
+    // Act
+    poolBackpressureFilter.doFilter(request, response, filterChain);
+
+    // Assert
+    verify(filterChain, never()).doFilter(any(), any());
+    assertEquals(503, response.getStatus());
+    assertEquals("2", response.getHeader("Retry-After"));
+    assertTrue(response.getContentAsString().contains("\"statusCode\":503"));
+    assertEquals(1.0, meterRegistry.get("app.backpressure.rejected.count").tag("endpoint", "book_room").counter().count());
+  }
+
+  @Test
+  public void testSearchRejectedWhenReplicaPoolIsSaturated() throws Exception {
+    // Arrange
+    givenPools(primary, replica);
+    when(primary.getHikariPoolMXBean()).thenReturn(primaryPool);
+    when(replica.getHikariPoolMXBean()).thenReturn(replicaPool);
+    when(replicaPool.getThreadsAwaitingConnection()).thenReturn(20);
+    MockHttpServletRequest request = request("GET", "/api/rooms/available-rooms-by-date-and-type");
+
+    // Act
+    poolBackpressureFilter.doFilter(request, response, filterChain);
+
+    // Assert
+    assertEquals(503, response.getStatus());
+    assertEquals(1.0, meterRegistry.get("app.backpressure.rejected.count").tag("endpoint", "room_search").counter().count());
+  }
+
+  @Test
+  public void testPoolNotStartedYetCountsAsIdle() throws Exception {
+    // Arrange
+    givenPools(primary);
+    when(primary.getHikariPoolMXBean()).thenReturn(null);
+    MockHttpServletRequest request = request("GET", "/api/rooms/all-available-rooms");
+
+    // Act
+    poolBackpressureFilter.doFilter(request, response, filterChain);
+
+    // Assert
+    verify(filterChain).doFilter(request, response);
+  }
+
+  @Test
+  public void testUnguardedRouteIsNeverRejected() throws Exception {
+    // Arrange
+    MockHttpServletRequest request = request("GET", "/api/rooms/all");
+
+    // Act
+    poolBackpressureFilter.doFilter(request, response, filterChain);
+
+    // Assert
+    verify(filterChain).doFilter(request, response);
+    verifyNoInteractions(pools);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(poolBackpressureFilter, "enabled", false);
+    MockHttpServletRequest request = request("POST", "/api/bookings/book-room/1/2");
+
+    // Act
+    poolBackpressureFilter.doFilter(request, response, filterChain);
+
+    // Assert
+    verify(filterChain).doFilter(request, response);
+    verifyNoInteractions(pools);
+  }
+
+  // Request matchers look at the servlet path, which MockHttpServletRequest leaves empty
+  private static MockHttpServletRequest request(String method, String path) {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+    request.setServletPath(path);
+    return request;
+  }
+
+  private void givenPools(HikariDataSource... dataSources) {
+    when(pools.iterator()).thenAnswer(invocation -> List.of(dataSources).iterator());
+  }
+}
@@ -34,6 +34,9 @@ public class SecurityConfigTest {
   @Mock
   private JWTAuthFilter jwtAuthFilter;
 
+  @Mock
+  private PoolBackpressureFilter poolBackpressureFilter;
+
   @Mock
   private UserRepository userRepository;
 
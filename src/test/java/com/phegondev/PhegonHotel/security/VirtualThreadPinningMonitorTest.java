@@ -0,0 +1,67 @@
+package com.phegondev.PhegonHotel.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private VirtualThreadPinningMonitor monitor;
+
+  @BeforeEach
+  public void setup() {
+    meterRegistry = new SimpleMeterRegistry();
+    monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    monitor.destroy();
+  }
+
+  @Test
+  public void testRegistersMetersBeforeAnyPin() {
+    // Assert
+    assertEquals(0.0, meterRegistry.get("app.threads.virtual.pinned.count").counter().count());
+    assertEquals(0, meterRegistry.get("app.threads.virtual.pinned.time").timer().count());
+  }
+
+  // Java 24 lets virtual threads unmount inside synchronized, so only 21 to 23 pin here
+  @Test
+  @EnabledForJreRange(min = JRE.JAVA_21, max = JRE.JAVA_23)
+  public void testCountsBlockingInsideSynchronized() throws Exception {
+    // Arrange - the test sources target Java 17, so the virtual thread executor is looked up reflectively
+    ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    Object lock = new Object();
+
+    // Act
+    try {
+      executor.submit(() -> {
+        synchronized (lock) {
+          Thread.sleep(50);
+        }
+        return null;
+      }).get();
+    } finally {
+      executor.shutdown();
+    }
+
+    // Assert - the recording stream delivers events about once a second
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (meterRegistry.get("app.threads.virtual.pinned.count").counter().count() == 0
+            && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    assertEquals(1.0, meterRegistry.get("app.threads.virtual.pinned.count").counter().count());
+  }
+}
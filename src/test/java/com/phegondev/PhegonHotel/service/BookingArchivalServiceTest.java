@@ -0,0 +1,209 @@
+package com.phegondev.PhegonHotel.service;
+
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
+import com.phegondev.PhegonHotel.entity.Booking;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.repo.BookingRepository;
+import com.phegondev.PhegonHotel.repo.RepositoryTestConfig;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the archival job against the migrated schema. Each batch commits on its own, so the test runs outside
+ * a test-managed transaction and cleans up after itself.
+ */
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.datasource.url=jdbc:h2:mem:archivetestdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        // Past stays fail Booking's @Future check on persist, and those are exactly what gets archived
+        "spring.jpa.properties.jakarta.persistence.validation.mode=none",
+        "app.booking.archive.batch-size=2",
+        "SPRING_APPLICATION_NAME=test-app",
+        "aws.s3.bucket.name=test-bucket",
+        "aws.s3.access.key=test-key",
+        "aws.s3.secret.key=test-secret",
+        "aws.region.static=us-east-1"
+})
+@Import({RepositoryTestConfig.class, BookingArchivalService.class,
+        RoomCatalogVersion.class})
+public class BookingArchivalServiceTest {
+
+  private static final LocalDate TODAY = LocalDate.now();
+
+  @Autowired
+  private BookingArchivalService bookingArchivalService;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
+  @Autowired
+  private RoomRepository roomRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private RoomCatalogVersion roomCatalogVersion;
+
+  private Room room;
+  private User guest;
+
+  @BeforeEach
+  public void setup() {
+    room = new Room();
+    room.setRoomType("DELUXE");
+    room.setRoomPrice(new BigDecimal("199.99"));
+    room = roomRepository.save(room);
+
+    guest = new User();
+    guest.setEmail("guest@example.com");
+    guest.setName("Guest");
+    guest.setPhoneNumber("1234567890");
+    guest.setPassword("password");
+    guest.setRole("USER");
+    guest = userRepository.save(guest);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    jdbcTemplate.update("DELETE FROM bookings_archive");
+    jdbcTemplate.update("DELETE FROM bookings");
+    jdbcTemplate.update("DELETE FROM users");
+    jdbcTemplate.update("DELETE FROM rooms");
+  }
+
+  @Test
+  public void testArchivesOnlyStaysEndedBeforeCutoff() {
+    // Arrange - five past stays, more than one batch of two, and one upcoming stay
+    for (int i = 1; i <= 5; i++) {
+      book("PAST" + i, TODAY.minusDays(100 + 10L * i), TODAY.minusDays(98 + 10L * i));
+    }
+    book("UPCOMING", TODAY.plusDays(5), TODAY.plusDays(7));
+
+    long versionBefore = roomCatalogVersion.current();
+
+    // Act
+    int archived = bookingArchivalService.archiveCheckedOutBefore(TODAY.minusDays(30));
+
+    // Assert
+    assertEquals(5, archived);
+    assertEquals(1, bookingRepository.count());
+    assertEquals("UPCOMING", bookingRepository.findAll().get(0).getBookingConfirmationCode());
+    assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings_archive", Integer.class));
+    assertEquals(5.0, meterRegistry.get("app.booking.archive.count").counter().count());
+    assertTrue(roomCatalogVersion.current() > versionBefore);
+  }
+
+  @Test
+  public void testNothingToArchive() {
+    // Arrange
+    book("UPCOMING", TODAY.plusDays(5), TODAY.plusDays(7));
+    long versionBefore = roomCatalogVersion.current();
+
+    // Act & Assert
+    assertEquals(0, bookingArchivalService.archiveCheckedOutBefore(TODAY.minusDays(30)));
+    assertEquals(1, bookingRepository.count());
+    assertEquals(versionBefore, roomCatalogVersion.current());
+  }
+
+  @Test
+  public void testBookingHistoryReadsAcrossHotAndArchivedBookings() {
+    // Arrange
+    Booking past = book("PAST", TODAY.minusDays(100), TODAY.minusDays(98));
+    book("OLDEST", TODAY.minusDays(200), TODAY.minusDays(198));
+    book("UPCOMING", TODAY.plusDays(5), TODAY.plusDays(7));
+    bookingArchivalService.archiveCheckedOutBefore(TODAY.minusDays(30));
+
+    // Act
+    List<UserBookingHistoryRow> all = userRepository.findBookingHistory(guest.getId(), Pageable.unpaged()).getContent();
+    Slice<UserBookingHistoryRow> secondPage = userRepository.findBookingHistory(guest.getId(), PageRequest.of(1, 2));
+
+    // Assert - newest first regardless of which table the row came from; archived rows keep id and room
+    assertEquals(List.of("UPCOMING", "PAST", "OLDEST"),
+            all.stream().map(UserBookingHistoryRow::getBookingConfirmationCode).toList());
+    assertEquals(past.getId(), all.get(1).getBookingId());
+    assertEquals("DELUXE", all.get(1).getRoomType());
+    assertEquals(1, secondPage.getContent().size());
+    assertEquals("OLDEST", secondPage.getContent().get(0).getBookingConfirmationCode());
+    assertFalse(secondPage.hasNext());
+  }
+
+  @Test
+  public void testBookingHistoryWithOnlyArchivedBookingsHasNoEmptyRow() {
+    // Arrange
+    book("PAST", TODAY.minusDays(100), TODAY.minusDays(98));
+    bookingArchivalService.archiveCheckedOutBefore(TODAY.minusDays(30));
+
+    // Act
+    List<UserBookingHistoryRow> rows = userRepository.findBookingHistory(guest.getId(), Pageable.unpaged()).getContent();
+
+    // Assert
+    assertEquals(1, rows.size());
+    assertEquals("PAST", rows.get(0).getBookingConfirmationCode());
+  }
+
+  @Test
+  public void testDeletingUserRemovesArchivedBookings() {
+    // Arrange
+    book("PAST", TODAY.minusDays(100), TODAY.minusDays(98));
+    bookingArchivalService.archiveCheckedOutBefore(TODAY.minusDays(30));
+
+    // Act
+    userRepository.deleteById(guest.getId());
+
+    // Assert
+    assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings_archive", Integer.class));
+  }
+
+  private Booking book(String confirmationCode, LocalDate checkIn, LocalDate checkOut) {
+    Booking booking = new Booking();
+    booking.setCheckInDate(checkIn);
+    booking.setCheckOutDate(checkOut);
+    booking.setNumOfAdults(1);
+    booking.setTotalNumOfGuest(1);
+    booking.setBookingConfirmationCode(confirmationCode);
+    booking.setRoom(room);
+    booking.setUser(guest);
+    return bookingRepository.save(booking);
+  }
+}
@@ -0,0 +1,137 @@
+package com.phegondev.PhegonHotel.service;
+
+import com.phegondev.PhegonHotel.entity.RefreshToken;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+  @Mock
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @InjectMocks
+  private RefreshTokenService refreshTokenService;
+
+  private User testUser;
+
+  @BeforeEach
+  public void setup() {
+    ReflectionTestUtils.setField(refreshTokenService, "refreshTokenExpirationMs", 60_000L);
+
+    testUser = new User();
+    testUser.setId(1L);
+    testUser.setEmail("test@example.com");
+    testUser.setRole("USER");
+  }
+
+  @Test
+  public void testIssue_StoresOnlyHash() {
+    // Act
+    String rawToken = refreshTokenService.issue(testUser);
+
+    // Assert
+    ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+    verify(refreshTokenRepository).save(captor.capture());
+    RefreshToken stored = captor.getValue();
+    assertNotEquals(rawToken, stored.getTokenHash());
+    assertEquals(RefreshTokenService.hash(rawToken), stored.getTokenHash());
+    assertEquals(64, stored.getTokenHash().length());
+    assertFalse(stored.isRevoked());
+  }
+
+  @Test
+  public void testRotate_ConsumesTokenAndIssuesSameFamily() {
+    // Arrange
+    RefreshToken current = token("family-1", false, Instant.now().plusSeconds(60));
+    when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(current));
+    when(refreshTokenRepository.claim(7L)).thenReturn(1);
+
+    // Act
+    RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw");
+
+    // Assert
+    assertSame(testUser, rotation.user());
+    assertNotEquals("raw", rotation.refreshToken());
+    verify(refreshTokenRepository).claim(7L);
+
+    ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+    verify(refreshTokenRepository).save(captor.capture());
+    assertEquals("family-1", captor.getValue().getFamilyId());
+    verify(refreshTokenRepository, never()).revokeFamily(anyString());
+  }
+
+  @Test
+  public void testRotate_LostClaimIsReuse() {
+    // Arrange - another refresh consumed the token after it was read
+    RefreshToken current = token("family-1", false, Instant.now().plusSeconds(60));
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(current));
+    when(refreshTokenRepository.claim(7L)).thenReturn(0);
+
+    // Act & Assert
+    OurException exception = assertThrows(OurException.class, () -> refreshTokenService.rotate("raw"));
+    assertEquals("Refresh token reuse detected", exception.getMessage());
+    verify(refreshTokenRepository).revokeFamily("family-1");
+    verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+  }
+
+  @Test
+  public void testRotate_ReuseRevokesWholeFamily() {
+    // Arrange
+    RefreshToken used = token("family-1", true, Instant.now().plusSeconds(60));
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(used));
+
+    // Act & Assert
+    OurException exception = assertThrows(OurException.class, () -> refreshTokenService.rotate("raw"));
+    assertEquals("Refresh token reuse detected", exception.getMessage());
+    verify(refreshTokenRepository).revokeFamily("family-1");
+    verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+  }
+
+  @Test
+  public void testRotate_ExpiredToken() {
+    // Arrange
+    RefreshToken expired = token("family-1", false, Instant.now().minusSeconds(1));
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(expired));
+
+    // Act & Assert
+    assertThrows(OurException.class, () -> refreshTokenService.rotate("raw"));
+    verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+  }
+
+  @Test
+  public void testRotate_UnknownToken() {
+    // Arrange
+    when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertThrows(OurException.class, () -> refreshTokenService.rotate("raw"));
+  }
+
+  private RefreshToken token(String familyId, boolean revoked, Instant expiresAt) {
+    RefreshToken token = new RefreshToken();
+    token.setId(7L);
+    token.setFamilyId(familyId);
+    token.setRevoked(revoked);
+    token.setExpiresAt(expiresAt);
+    token.setUser(testUser);
+    return token;
+  }
+}
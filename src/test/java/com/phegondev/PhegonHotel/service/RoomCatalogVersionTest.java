@@ -0,0 +1,72 @@
+package com.phegondev.PhegonHotel.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomCatalogVersionTest {
+
+  private final RoomCatalogVersion roomCatalogVersion = new RoomCatalogVersion();
+
+  @AfterEach
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void testBumpOutsideTransactionIsImmediate() {
+    // Arrange
+    String before = roomCatalogVersion.etag("rooms");
+
+    // Act
+    roomCatalogVersion.bump();
+
+    // Assert
+    assertEquals(1, roomCatalogVersion.current());
+    assertNotEquals(before, roomCatalogVersion.etag("rooms"));
+  }
+
+  @Test
+  public void testBumpWaitsForCommit() {
+    // Arrange
+    TransactionSynchronizationManager.initSynchronization();
+
+    // Act
+    roomCatalogVersion.bump();
+
+    // Assert - readers keep the old tag until the change is visible to them
+    assertEquals(0, roomCatalogVersion.current());
+    TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    assertEquals(1, roomCatalogVersion.current());
+  }
+
+  @Test
+  public void testRolledBackChangeKeepsVersion() {
+    // Arrange
+    TransactionSynchronizationManager.initSynchronization();
+
+    // Act
+    roomCatalogVersion.bump();
+    TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+    // Assert
+    assertEquals(0, roomCatalogVersion.current());
+  }
+
+  @Test
+  public void testEtagsAreQuotedAndPerResource() {
+    // Act
+    String rooms = roomCatalogVersion.etag("rooms");
+    String room = roomCatalogVersion.etag("room-1");
+
+    // Assert
+    assertTrue(rooms.startsWith("\"rooms-") && rooms.endsWith("\""));
+    assertNotEquals(rooms, room);
+  }
+}
@@ -0,0 +1,286 @@
+package com.phegondev.PhegonHotel.service;
+
+import com.phegondev.PhegonHotel.dto.RoomUploadDTO;
+import com.phegondev.PhegonHotel.entity.Room;
+import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.RoomRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomPhotoUploadsTest {
+
+  @Mock
+  private AwsS3Service awsS3Service;
+
+  @Mock
+  private RoomRepository roomRepository;
+
+  @Mock
+  private RoomCatalogVersion roomCatalogVersion;
+
+  @InjectMocks
+  private RoomPhotoUploads roomPhotoUploads;
+
+  // Uploads wait here until the test runs them, in whatever order it needs
+  private final List<Runnable> queued = new ArrayList<>();
+
+  // Staged files handed to S3, to check they are cleaned up
+  private final List<Path> staged = new ArrayList<>();
+
+  @BeforeEach
+  public void setup() {
+    Executor executor = queued::add;
+    ReflectionTestUtils.setField(roomPhotoUploads, "roomPhotoUploadExecutor", executor);
+    ReflectionTestUtils.setField(roomPhotoUploads, "transactionTemplate", TransactionOperations.withoutTransaction());
+  }
+
+  @Test
+  public void testNewRoomIsSavedOnceThePhotoIsStored() throws Exception {
+    // Arrange
+    stubUpload("sea.jpg", "https://bucket.s3.amazonaws.com/sea.jpg");
+    when(roomRepository.save(any(Room.class))).thenAnswer(invocation -> {
+      Room room = invocation.getArgument(0);
+      room.setId(42L);
+      return room;
+    });
+
+    // Act
+    RoomUploadDTO accepted = roomPhotoUploads.submitNewRoom(photo("sea.jpg"), "DELUXE",
+            new BigDecimal("199.99"), "Sea view");
+
+    // Assert - nothing is saved while the upload is queued
+    assertEquals(RoomUploadDTO.PENDING, accepted.getStatus());
+    assertNull(accepted.getRoomId());
+    verifyNoInteractions(roomRepository);
+
+    // Act
+    runQueued();
+
+    // Assert
+    ArgumentCaptor<Room> roomCaptor = ArgumentCaptor.forClass(Room.class);
+    verify(roomRepository).save(roomCaptor.capture());
+    Room saved = roomCaptor.getValue();
+    assertEquals("https://bucket.s3.amazonaws.com/sea.jpg", saved.getRoomPhotoUrl());
+    assertEquals("DELUXE", saved.getRoomType());
+    assertEquals(new BigDecimal("199.99"), saved.getRoomPrice());
+    assertEquals("Sea view", saved.getRoomDescription());
+    verify(roomCatalogVersion).bump();
+
+    RoomUploadDTO completed = roomPhotoUploads.find(accepted.getUploadId()).orElseThrow();
+    assertEquals(RoomUploadDTO.COMPLETED, completed.getStatus());
+    assertEquals(42L, completed.getRoomId());
+    assertEquals("https://bucket.s3.amazonaws.com/sea.jpg", completed.getRoomPhotoUrl());
+    assertStagedFilesDeleted();
+  }
+
+  @Test
+  public void testFailedUploadSavesNothing() throws Exception {
+    // Arrange
+    when(awsS3Service.saveImageToS3(anyString(), any(Path.class))).thenAnswer(invocation -> {
+      staged.add(invocation.getArgument(1));
+      throw new OurException("Unable to upload image to s3 bucket: Access Denied");
+    });
+
+    // Act
+    RoomUploadDTO accepted = roomPhotoUploads.submitNewRoom(photo("sea.jpg"), "DELUXE",
+            new BigDecimal("199.99"), "Sea view");
+    runQueued();
+
+    // Assert
+    RoomUploadDTO failed = roomPhotoUploads.find(accepted.getUploadId()).orElseThrow();
+    assertEquals(RoomUploadDTO.FAILED, failed.getStatus());
+    assertTrue(failed.getMessage().contains("Access Denied"));
+    assertNull(failed.getRoomId());
+    verifyNoInteractions(roomRepository, roomCatalogVersion);
+    assertStagedFilesDeleted();
+  }
+
+  @Test
+  public void testPhotoChangeReplacesTheStoredPhoto() throws Exception {
+    // Arrange
+    stubUpload("new.jpg", "https://bucket.s3.amazonaws.com/new.jpg");
+    when(roomRepository.updateRoomPhotoUrl(7L, "https://bucket.s3.amazonaws.com/new.jpg")).thenReturn(1);
+
+    // Act
+    RoomUploadDTO accepted = roomPhotoUploads.submitPhotoChange(7L, photo("new.jpg"));
+    runQueued();
+
+    // Assert
+    assertEquals(7L, accepted.getRoomId());
+    RoomUploadDTO completed = roomPhotoUploads.find(accepted.getUploadId()).orElseThrow();
+    assertEquals(RoomUploadDTO.COMPLETED, completed.getStatus());
+    assertEquals("https://bucket.s3.amazonaws.com/new.jpg", completed.getRoomPhotoUrl());
+    verify(roomCatalogVersion).bump();
+    assertStagedFilesDeleted();
+  }
+
+  @Test
+  public void testNewerPhotoChangeWinsWhicheverFinishesFirst() throws Exception {
+    // Arrange
+    stubUpload("first.jpg", "https://bucket.s3.amazonaws.com/first.jpg");
+    stubUpload("second.jpg", "https://bucket.s3.amazonaws.com/second.jpg");
+    when(roomRepository.updateRoomPhotoUrl(7L, "https://bucket.s3.amazonaws.com/second.jpg")).thenReturn(1);
+
+    RoomUploadDTO first = roomPhotoUploads.submitPhotoChange(7L, photo("first.jpg"));
+    RoomUploadDTO second = roomPhotoUploads.submitPhotoChange(7L, photo("second.jpg"));
+
+    // Act - the older upload reaches S3 last
+    queued.get(1).run();
+    queued.get(0).run();
+
+    // Assert - its photo never replaces the newer one
+    assertEquals(RoomUploadDTO.COMPLETED, roomPhotoUploads.find(second.getUploadId()).orElseThrow().getStatus());
+    assertEquals(RoomUploadDTO.SUPERSEDED, roomPhotoUploads.find(first.getUploadId()).orElseThrow().getStatus());
+    verify(roomRepository, times(1)).updateRoomPhotoUrl(anyLong(), anyString());
+    verify(roomCatalogVersion, times(1)).bump();
+  }
+
+  @Test
+  public void testOlderPhotoChangeIsStoredWhenTheNewerOneFails() throws Exception {
+    // Arrange
+    stubUpload("first.jpg", "https://bucket.s3.amazonaws.com/first.jpg");
+    when(awsS3Service.saveImageToS3(eq("second.jpg"), any(Path.class))).thenAnswer(invocation -> {
+      staged.add(invocation.getArgument(1));
+      throw new OurException("Unable to upload image to s3 bucket: Access Denied");
+    });
+    when(roomRepository.updateRoomPhotoUrl(7L, "https://bucket.s3.amazonaws.com/first.jpg")).thenReturn(1);
+
+    RoomUploadDTO first = roomPhotoUploads.submitPhotoChange(7L, photo("first.jpg"));
+    RoomUploadDTO second = roomPhotoUploads.submitPhotoChange(7L, photo("second.jpg"));
+
+    // Act - the newer upload fails before the older one reaches S3
+    queued.get(1).run();
+    queued.get(0).run();
+
+    // Assert
+    assertEquals(RoomUploadDTO.FAILED, roomPhotoUploads.find(second.getUploadId()).orElseThrow().getStatus());
+    assertEquals(RoomUploadDTO.COMPLETED, roomPhotoUploads.find(first.getUploadId()).orElseThrow().getStatus());
+    verify(roomCatalogVersion, times(1)).bump();
+    assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(roomPhotoUploads, "photoChanges")).isEmpty());
+    assertStagedFilesDeleted();
+  }
+
+  @Test
+  public void testPhotoChangeForADeletedRoomFails() throws Exception {
+    // Arrange
+    stubUpload("new.jpg", "https://bucket.s3.amazonaws.com/new.jpg");
+    when(roomRepository.updateRoomPhotoUrl(eq(7L), anyString())).thenReturn(0);
+
+    // Act
+    RoomUploadDTO accepted = roomPhotoUploads.submitPhotoChange(7L, photo("new.jpg"));
+    runQueued();
+
+    // Assert
+    RoomUploadDTO failed = roomPhotoUploads.find(accepted.getUploadId()).orElseThrow();
+    assertEquals(RoomUploadDTO.FAILED, failed.getStatus());
+    assertEquals("Room Not Found", failed.getMessage());
+  }
+
+  @Test
+  public void testRejectedPhotoChangeDoesNotSupersedeTheQueuedOne() throws Exception {
+    // Arrange
+    stubUpload("first.jpg", "https://bucket.s3.amazonaws.com/first.jpg");
+    when(roomRepository.updateRoomPhotoUrl(7L, "https://bucket.s3.amazonaws.com/first.jpg")).thenReturn(1);
+    RoomUploadDTO first = roomPhotoUploads.submitPhotoChange(7L, photo("first.jpg"));
+    Runnable firstUpload = queued.remove(0);
+    ReflectionTestUtils.setField(roomPhotoUploads, "roomPhotoUploadExecutor", (Executor) task -> {
+      throw new RejectedExecutionException("queue full");
+    });
+
+    // Act
+    assertThrows(RejectedExecutionException.class,
+            () -> roomPhotoUploads.submitPhotoChange(7L, photo("second.jpg")));
+    firstUpload.run();
+
+    // Assert
+    assertEquals(RoomUploadDTO.COMPLETED, roomPhotoUploads.find(first.getUploadId()).orElseThrow().getStatus());
+    verify(awsS3Service, never()).saveImageToS3(eq("second.jpg"), any(Path.class));
+  }
+
+  @Test
+  public void testWhenFinishedCompletesWithTheFinalState() throws Exception {
+    // Arrange
+    stubUpload("new.jpg", "https://bucket.s3.amazonaws.com/new.jpg");
+    when(roomRepository.updateRoomPhotoUrl(eq(7L), anyString())).thenReturn(1);
+    RoomUploadDTO accepted = roomPhotoUploads.submitPhotoChange(7L, photo("new.jpg"));
+    CompletableFuture<RoomUploadDTO> finished = roomPhotoUploads.whenFinished(accepted.getUploadId()).orElseThrow();
+    assertFalse(finished.isDone());
+
+    // Act
+    runQueued();
+
+    // Assert
+    assertEquals(RoomUploadDTO.COMPLETED, finished.get(1, TimeUnit.SECONDS).getStatus());
+    assertTrue(roomPhotoUploads.whenFinished("unknown").isEmpty());
+  }
+
+  @Test
+  public void testPurgeDropsOnlyFinishedUploadsPastRetention() throws Exception {
+    // Arrange
+    ReflectionTestUtils.setField(roomPhotoUploads, "statusRetentionMinutes", 0L);
+    stubUpload("done.jpg", "https://bucket.s3.amazonaws.com/done.jpg");
+    when(roomRepository.updateRoomPhotoUrl(eq(7L), anyString())).thenReturn(1);
+    RoomUploadDTO done = roomPhotoUploads.submitPhotoChange(7L, photo("done.jpg"));
+    runQueued();
+    RoomUploadDTO pending = roomPhotoUploads.submitPhotoChange(8L, photo("pending.jpg"));
+    Thread.sleep(20);
+
+    // Act
+    roomPhotoUploads.purgeFinished();
+
+    // Assert
+    assertTrue(roomPhotoUploads.find(done.getUploadId()).isEmpty());
+    assertTrue(roomPhotoUploads.find(pending.getUploadId()).isPresent());
+  }
+
+  private void stubUpload(String filename, String url) {
+    when(awsS3Service.saveImageToS3(eq(filename), any(Path.class))).thenAnswer(invocation -> {
+      Path path = invocation.getArgument(1);
+      assertTrue(Files.exists(path), "the staged photo must outlive the request");
+      staged.add(path);
+      return url;
+    });
+  }
+
+  private void runQueued() {
+    List<Runnable> tasks = new ArrayList<>(queued);
+    queued.clear();
+    tasks.forEach(Runnable::run);
+  }
+
+  private void assertStagedFilesDeleted() {
+    assertFalse(staged.isEmpty());
+    staged.forEach(path -> assertFalse(Files.exists(path), path + " was left behind"));
+  }
+
+  private static MockMultipartFile photo(String filename) {
+    return new MockMultipartFile("photo", filename, "image/jpeg", "jpeg bytes".getBytes());
+  }
+}
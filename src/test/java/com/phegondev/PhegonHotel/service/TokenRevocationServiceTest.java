@@ -0,0 +1,54 @@
+package com.phegondev.PhegonHotel.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenRevocationServiceTest {
+
+  private TokenRevocationService tokenRevocationService;
+
+  @BeforeEach
+  public void setup() {
+    tokenRevocationService = new TokenRevocationService(1000, 0.01);
+  }
+
+  @Test
+  public void testRevokedTokenIsReported() {
+    // Act
+    tokenRevocationService.revoke("header.payload.signature", new Date(System.currentTimeMillis() + 60_000));
+
+    // Assert
+    assertTrue(tokenRevocationService.isRevoked("header.payload.signature"));
+    assertFalse(tokenRevocationService.isRevoked("header.payload.other"));
+  }
+
+  @Test
+  public void testAlreadyExpiredTokenIsNotStored() {
+    // Act
+    tokenRevocationService.revoke("header.payload.signature", new Date(System.currentTimeMillis() - 1));
+
+    // Assert
+    assertEquals(0, tokenRevocationService.size());
+    assertFalse(tokenRevocationService.isRevoked("header.payload.signature"));
+  }
+
+  @Test
+  public void testPurgeExpiredDropsOnlyExpiredEntries() throws InterruptedException {
+    // Arrange
+    tokenRevocationService.revoke("a.b.short", new Date(System.currentTimeMillis() + 20));
+    tokenRevocationService.revoke("a.b.long", new Date(System.currentTimeMillis() + 60_000));
+    Thread.sleep(50);
+
+    // Act
+    tokenRevocationService.purgeExpired();
+
+    // Assert
+    assertEquals(1, tokenRevocationService.size());
+    assertFalse(tokenRevocationService.isRevoked("a.b.short"));
+    assertTrue(tokenRevocationService.isRevoked("a.b.long"));
+  }
+}
@@ -1,16 +1,23 @@
 package com.phegondev.PhegonHotel.service.impl;
 
+import com.phegondev.PhegonHotel.dto.BookingDTO;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.v2.BookingDetail;
+import com.phegondev.PhegonHotel.dto.v2.BookingRequest;
 import com.phegondev.PhegonHotel.entity.Booking;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
 import com.phegondev.PhegonHotel.repo.BookingRepository;
 import com.phegondev.PhegonHotel.repo.RoomRepository;
 import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.service.BookingOutcome;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
 import com.phegondev.PhegonHotel.service.interfac.IRoomService;
 import com.phegondev.PhegonHotel.utils.Utils;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,13 +25,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -58,6 +71,12 @@ public class BookingServiceTest {
   @Mock
   private Timer.Sample timerSample;
 
+  @Mock
+  private EntityManager entityManager;
+
+  @Mock
+  private RoomCatalogVersion roomCatalogVersion;
+
   @InjectMocks
   private BookingService bookingService;
 
@@ -67,6 +86,9 @@ public class BookingServiceTest {
 
   @BeforeEach
   public void setup() {
+    ReflectionTestUtils.setField(bookingService, "transactionTemplate", TransactionOperations.withoutTransaction());
+    ReflectionTestUtils.setField(bookingService, "backoffMs", 0L);
+
     testRoom = new Room();
     testRoom.setId(1L);
     testRoom.setRoomType("STANDARD");
@@ -118,6 +140,76 @@ public class BookingServiceTest {
     }
   }
 
+  @Test
+  public void testSaveBooking_BumpsRoomVersion() {
+    // Arrange
+    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+    when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+
+    // Act
+    Response response = bookingService.saveBooking(1L, 1L, testBooking);
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    verify(entityManager).lock(testRoom, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+  }
+
+  @Test
+  public void testSaveBooking_OptimisticLockingDisabled() {
+    // Arrange
+    ReflectionTestUtils.setField(bookingService, "optimisticLockingEnabled", false);
+    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+    when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+
+    // Act
+    Response response = bookingService.saveBooking(1L, 1L, testBooking);
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    verifyNoInteractions(entityManager);
+  }
+
+  @Test
+  public void testSaveBooking_RetriesAfterVersionConflict() {
+    // Arrange - another booking of the same room committed first
+    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+    when(bookingRepository.save(any(Booking.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Room.class, 1L))
+            .thenReturn(testBooking);
+
+    // Act
+    Response response = bookingService.saveBooking(1L, 1L, testBooking);
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertNull(testBooking.getId());
+    verify(roomRepository, times(2)).findById(1L);
+    verify(bookingRepository, times(2)).save(testBooking);
+    verify(createBookingCounter).increment();
+    verify(createBookingErrorCounter, never()).increment();
+  }
+
+  @Test
+  public void testSaveBooking_ConflictAfterMaxAttempts() {
+    // Arrange
+    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+    when(bookingRepository.save(any(Booking.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Room.class, 1L));
+
+    // Act
+    Response response = bookingService.saveBooking(1L, 1L, testBooking);
+
+    // Assert
+    assertEquals(409, response.getStatusCode());
+    verify(bookingRepository, times(3)).save(testBooking);
+    verify(createBookingCounter, never()).increment();
+    verify(createBookingErrorCounter).increment();
+  }
+
   @Test
   public void testSaveBooking_RoomNotFound() {
     // Arrange
@@ -228,7 +320,7 @@ public class BookingServiceTest {
       verify(userRepository).findById(1L);
       verify(bookingRepository, never()).save(any(Booking.class));
       verify(createBookingCounter, never()).increment();
-      verify(createBookingErrorCounter, times(2)).increment(); // Updated to expect 2 calls
+      verify(createBookingErrorCounter).increment(); // Counted once, by saveBooking
       verify(timerSample).stop(createBookingTimer);
     }
   }
@@ -317,9 +409,9 @@ public class BookingServiceTest {
   @Test
   public void testGetAllBookings_Success() {
     // Arrange
-    List<Booking> bookings = new ArrayList<>();
-    bookings.add(testBooking);
-    when(bookingRepository.findAll(any(Sort.class))).thenReturn(bookings);
+    List<BookingDTO> bookings = new ArrayList<>();
+    bookings.add(Utils.mapBookingEntityToBookingDTO(testBooking));
+    when(bookingRepository.findAllBookingDTOs()).thenReturn(bookings);
 
     // Act
     Response response = bookingService.getAllBookings();
@@ -330,14 +422,14 @@ public class BookingServiceTest {
     assertNotNull(response.getBookingList());
     assertEquals(1, response.getBookingList().size());
 
-    verify(bookingRepository).findAll(any(Sort.class));
+    verify(bookingRepository).findAllBookingDTOs();
   }
 
   @Test
   public void testGetAllBookings_EmptyList() {
     // Arrange
-    List<Booking> bookings = new ArrayList<>();
-    when(bookingRepository.findAll(any(Sort.class))).thenReturn(bookings);
+    List<BookingDTO> bookings = new ArrayList<>();
+    when(bookingRepository.findAllBookingDTOs()).thenReturn(bookings);
 
     // Act
     Response response = bookingService.getAllBookings();
@@ -348,13 +440,13 @@ public class BookingServiceTest {
     assertNotNull(response.getBookingList());
     assertEquals(0, response.getBookingList().size());
 
-    verify(bookingRepository).findAll(any(Sort.class));
+    verify(bookingRepository).findAllBookingDTOs();
   }
 
   @Test
   public void testGetAllBookings_Exception() {
     // Arrange
-    when(bookingRepository.findAll(any(Sort.class))).thenThrow(new RuntimeException("Database error"));
+    when(bookingRepository.findAllBookingDTOs()).thenThrow(new RuntimeException("Database error"));
 
     // Act
     Response response = bookingService.getAllBookings();
@@ -363,7 +455,7 @@ public class BookingServiceTest {
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error Getting all bookings"));
 
-    verify(bookingRepository).findAll(any(Sort.class));
+    verify(bookingRepository).findAllBookingDTOs();
   }
 
   @Test
@@ -382,6 +474,7 @@ public class BookingServiceTest {
 
     verify(bookingRepository).findById(bookingId);
     verify(bookingRepository).delete(any(Booking.class));
+    verify(roomCatalogVersion).bump();
   }
 
   @Test
@@ -420,6 +513,125 @@ public class BookingServiceTest {
     verify(bookingRepository).delete(any(Booking.class));
   }
 
+  @Test
+  public void testCreateBooking_Booked() {
+    // Arrange
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+    try (MockedStatic<Timer> timerMock = mockStatic(Timer.class);
+         MockedStatic<Utils> utilsMock = mockStatic(Utils.class)) {
+      timerMock.when(Timer::start).thenReturn(timerSample);
+      utilsMock.when(() -> Utils.generateRandomConfirmationCode(anyInt())).thenReturn("V2CODE1234");
+
+      // Act
+      BookingOutcome outcome = bookingService.createBooking(bookingRequest());
+
+      // Assert
+      assertTrue(outcome.isBooked());
+      assertEquals("V2CODE1234", outcome.bookingConfirmationCode());
+      verify(bookingRepository).save(argThat(booking -> booking.getRoom() == testRoom
+              && booking.getUser() == testUser && booking.getTotalNumOfGuest() == 3));
+      verify(roomCatalogVersion).bump();
+      verify(createBookingCounter).increment();
+      verify(createBookingErrorCounter, never()).increment();
+      verify(timerSample).stop(createBookingTimer);
+    }
+  }
+
+  @Test
+  public void testCreateBooking_FailuresAreReturnedAndRolledBack() {
+    // Arrange
+    AtomicReference<TransactionStatus> lastStatus = new AtomicReference<>();
+    ReflectionTestUtils.setField(bookingService, "transactionTemplate", new TransactionOperations() {
+      @Override
+      public <T> T execute(TransactionCallback<T> action) {
+        lastStatus.set(new SimpleTransactionStatus());
+        return action.doInTransaction(lastStatus.get());
+      }
+    });
+    when(roomRepository.findById(1L)).thenReturn(Optional.empty());
+
+    // Act
+    BookingOutcome outcome = bookingService.createBooking(bookingRequest());
+
+    // Assert
+    assertEquals(BookingOutcome.Status.ROOM_NOT_FOUND, outcome.status());
+    assertNull(outcome.bookingConfirmationCode());
+    assertTrue(lastStatus.get().isRollbackOnly());
+    verify(createBookingErrorCounter).increment();
+    verify(createBookingCounter, never()).increment();
+    verifyNoInteractions(roomCatalogVersion);
+  }
+
+  @Test
+  public void testCreateBooking_RoomNotAvailable() {
+    // Arrange
+    Booking existing = new Booking();
+    existing.setCheckInDate(LocalDate.now().plusDays(1));
+    existing.setCheckOutDate(LocalDate.now().plusDays(5));
+    testRoom.setBookings(List.of(existing));
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+    // Act
+    BookingOutcome outcome = bookingService.createBooking(bookingRequest());
+
+    // Assert
+    assertEquals(BookingOutcome.Status.UNAVAILABLE, outcome.status());
+    verify(bookingRepository, never()).save(any(Booking.class));
+    verify(createBookingErrorCounter).increment();
+    verify(createBookingCounter, never()).increment();
+  }
+
+  @Test
+  public void testCreateBooking_ConflictAfterMaxAttempts() {
+    // Arrange
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    when(bookingRepository.save(any(Booking.class)))
+            .thenThrow(new ObjectOptimisticLockingFailureException(Room.class, 1L));
+
+    // Act
+    BookingOutcome outcome = bookingService.createBooking(bookingRequest());
+
+    // Assert
+    assertEquals(BookingOutcome.Status.CONFLICT, outcome.status());
+    verify(bookingRepository, times(3)).save(any(Booking.class));
+    verify(createBookingErrorCounter).increment();
+  }
+
+  @Test
+  public void testFindBookingDetail() {
+    // Arrange
+    when(bookingRepository.findByBookingConfirmationCode("ABCD1234")).thenReturn(Optional.of(testBooking));
+    when(bookingRepository.findByBookingConfirmationCode("MISSING")).thenReturn(Optional.empty());
+
+    // Act
+    Optional<BookingDetail> found = bookingService.findBookingDetail("ABCD1234");
+    Optional<BookingDetail> missing = bookingService.findBookingDetail("MISSING");
+
+    // Assert
+    assertTrue(found.isPresent());
+    assertEquals("ABCD1234", found.get().booking().bookingConfirmationCode());
+    assertEquals(1L, found.get().room().id());
+    assertEquals("test@example.com", found.get().guest().email());
+    assertTrue(missing.isEmpty());
+  }
+
+  @Test
+  public void testDeleteBooking() {
+    // Arrange
+    when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
+    when(bookingRepository.findById(2L)).thenReturn(Optional.empty());
+
+    // Act & Assert
+    assertTrue(bookingService.deleteBooking(1L));
+    assertFalse(bookingService.deleteBooking(2L));
+    verify(bookingRepository).delete(testBooking);
+    verify(roomCatalogVersion, times(1)).bump();
+  }
+
   @Test
   public void testRoomIsAvailable_True() {
     // Create a new booking with no conflicts
@@ -582,4 +794,8 @@ public class BookingServiceTest {
       return false;
     }
   }
-}
\ No newline at end of file
+
+  private static BookingRequest bookingRequest() {
+    return new BookingRequest(1L, 1L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 2, 1);
+  }
+}
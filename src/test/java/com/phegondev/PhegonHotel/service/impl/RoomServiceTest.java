@@ -1,28 +1,38 @@
 package com.phegondev.PhegonHotel.service.impl;
 
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.RoomDTO;
+import com.phegondev.PhegonHotel.dto.RoomUploadDTO;
+import com.phegondev.PhegonHotel.dto.v2.BookingView;
+import com.phegondev.PhegonHotel.dto.v2.RoomDetail;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.exception.OurException;
 import com.phegondev.PhegonHotel.repo.BookingRepository;
 import com.phegondev.PhegonHotel.repo.RoomRepository;
-import com.phegondev.PhegonHotel.service.AwsS3Service;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.RoomPhotoUploads;
+import com.phegondev.PhegonHotel.utils.Utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,7 +48,10 @@ public class RoomServiceTest {
   private BookingRepository bookingRepository;
 
   @Mock
-  private AwsS3Service awsS3Service;
+  private RoomPhotoUploads roomPhotoUploads;
+
+  @Mock
+  private RoomCatalogVersion roomCatalogVersion;
 
   @InjectMocks
   private RoomService roomService;
@@ -61,10 +74,11 @@ public class RoomServiceTest {
   }
 
   @Test
-  public void testAddNewRoom_Success() {
+  public void testAddNewRoom_AcceptedForUpload() throws Exception {
     // Arrange
-    when(awsS3Service.saveImageToS3(any(MultipartFile.class))).thenReturn("https://example.com/room.jpg");
-    when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
+    RoomUploadDTO upload = new RoomUploadDTO("upload-1", RoomUploadDTO.PENDING, null, null, null);
+    when(roomPhotoUploads.submitNewRoom(mockPhoto, "DELUXE", new BigDecimal("199.99"), "Luxury room with sea view"))
+            .thenReturn(upload);
 
     // Act
     Response response = roomService.addNewRoom(
@@ -73,28 +87,19 @@ public class RoomServiceTest {
             new BigDecimal("199.99"),
             "Luxury room with sea view");
 
-    // Assert
-    assertEquals(200, response.getStatusCode());
-    assertEquals("successful", response.getMessage());
-    assertNotNull(response.getRoom());
-    assertEquals("DELUXE", response.getRoom().getRoomType());
-
-    verify(awsS3Service).saveImageToS3(mockPhoto);
-
-    // Capture and verify the room saved
-    ArgumentCaptor<Room> roomCaptor = ArgumentCaptor.forClass(Room.class);
-    verify(roomRepository).save(roomCaptor.capture());
-    Room savedRoom = roomCaptor.getValue();
-    assertEquals("DELUXE", savedRoom.getRoomType());
-    assertEquals(new BigDecimal("199.99"), savedRoom.getRoomPrice());
-    assertEquals("https://example.com/room.jpg", savedRoom.getRoomPhotoUrl());
+    // Assert - nothing is saved until the photo is stored
+    assertEquals(202, response.getStatusCode());
+    assertSame(upload, response.getRoomUpload());
+    assertNull(response.getRoom());
+    verify(roomRepository, never()).save(any(Room.class));
+    verifyNoInteractions(roomCatalogVersion);
   }
 
   @Test
-  public void testAddNewRoom_ExceptionInS3Upload() {
+  public void testAddNewRoom_UploadQueueFull() throws Exception {
     // Arrange
-    when(awsS3Service.saveImageToS3(any(MultipartFile.class)))
-            .thenThrow(new OurException("Unable to upload image to s3 bucket"));
+    when(roomPhotoUploads.submitNewRoom(any(), any(), any(), any()))
+            .thenThrow(new RejectedExecutionException("queue full"));
 
     // Act
     Response response = roomService.addNewRoom(
@@ -104,18 +109,14 @@ public class RoomServiceTest {
             "Luxury room with sea view");
 
     // Assert
-    assertEquals(500, response.getStatusCode());
-    assertTrue(response.getMessage().contains("Error saving a room"));
-
-    verify(awsS3Service).saveImageToS3(mockPhoto);
-    verify(roomRepository, never()).save(any(Room.class));
+    assertEquals(503, response.getStatusCode());
+    assertNull(response.getRoomUpload());
   }
 
   @Test
-  public void testAddNewRoom_GeneralException() {
+  public void testAddNewRoom_StagingFails() throws Exception {
     // Arrange
-    when(awsS3Service.saveImageToS3(any(MultipartFile.class))).thenReturn("https://example.com/room.jpg");
-    when(roomRepository.save(any(Room.class))).thenThrow(new RuntimeException("Database error"));
+    when(roomPhotoUploads.submitNewRoom(any(), any(), any(), any())).thenThrow(new IOException("Disk full"));
 
     // Act
     Response response = roomService.addNewRoom(
@@ -127,9 +128,6 @@ public class RoomServiceTest {
     // Assert
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error saving a room"));
-
-    verify(awsS3Service).saveImageToS3(mockPhoto);
-    verify(roomRepository).save(any(Room.class));
   }
 
   @Test
@@ -176,9 +174,9 @@ public class RoomServiceTest {
   @Test
   public void testGetAllRooms_Success() {
     // Arrange
-    List<Room> roomList = new ArrayList<>();
-    roomList.add(testRoom);
-    when(roomRepository.findAll(any(Sort.class))).thenReturn(roomList);
+    List<RoomDTO> roomList = new ArrayList<>();
+    roomList.add(Utils.mapRoomEntityToRoomDTO(testRoom));
+    when(roomRepository.findAllRoomDTOs()).thenReturn(roomList);
 
     // Act
     Response response = roomService.getAllRooms();
@@ -190,13 +188,13 @@ public class RoomServiceTest {
     assertEquals(1, response.getRoomList().size());
     assertEquals("DELUXE", response.getRoomList().get(0).getRoomType());
 
-    verify(roomRepository).findAll(any(Sort.class));
+    verify(roomRepository).findAllRoomDTOs();
   }
 
   @Test
   public void testGetAllRooms_EmptyList() {
     // Arrange
-    when(roomRepository.findAll(any(Sort.class))).thenReturn(Collections.emptyList());
+    when(roomRepository.findAllRoomDTOs()).thenReturn(Collections.emptyList());
 
     // Act
     Response response = roomService.getAllRooms();
@@ -207,13 +205,13 @@ public class RoomServiceTest {
     assertNotNull(response.getRoomList());
     assertTrue(response.getRoomList().isEmpty());
 
-    verify(roomRepository).findAll(any(Sort.class));
+    verify(roomRepository).findAllRoomDTOs();
   }
 
   @Test
   public void testGetAllRooms_Exception() {
     // Arrange
-    when(roomRepository.findAll(any(Sort.class))).thenThrow(new RuntimeException("Database error"));
+    when(roomRepository.findAllRoomDTOs()).thenThrow(new RuntimeException("Database error"));
 
     // Act
     Response response = roomService.getAllRooms();
@@ -222,15 +220,15 @@ public class RoomServiceTest {
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error saving a room"));
 
-    verify(roomRepository).findAll(any(Sort.class));
+    verify(roomRepository).findAllRoomDTOs();
   }
 
   @Test
   public void testDeleteRoom_Success() {
     // Arrange
     Long roomId = 1L;
-    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
-    doNothing().when(roomRepository).delete(any(Room.class));
+    when(roomRepository.existsById(anyLong())).thenReturn(true);
+    when(bookingRepository.deleteAllByRoomIdInBulk(anyLong())).thenReturn(3);
 
     // Act
     Response response = roomService.deleteRoom(roomId);
@@ -239,15 +237,17 @@ public class RoomServiceTest {
     assertEquals(200, response.getStatusCode());
     assertEquals("successful", response.getMessage());
 
-    verify(roomRepository).findById(roomId);
-    verify(roomRepository).delete(testRoom);
+    InOrder inOrder = inOrder(bookingRepository, roomRepository);
+    inOrder.verify(bookingRepository).deleteAllByRoomIdInBulk(roomId);
+    inOrder.verify(roomRepository).deleteById(roomId);
+    verify(roomRepository, never()).delete(any(Room.class));
   }
 
   @Test
   public void testDeleteRoom_RoomNotFound() {
     // Arrange
     Long roomId = 999L;
-    when(roomRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(roomRepository.existsById(anyLong())).thenReturn(false);
 
     // Act
     Response response = roomService.deleteRoom(roomId);
@@ -256,16 +256,17 @@ public class RoomServiceTest {
     assertEquals(404, response.getStatusCode());
     assertEquals("Room Not Found", response.getMessage());
 
-    verify(roomRepository).findById(roomId);
-    verify(roomRepository, never()).delete(any(Room.class));
+    verify(roomRepository).existsById(roomId);
+    verify(bookingRepository, never()).deleteAllByRoomIdInBulk(anyLong());
+    verify(roomRepository, never()).deleteById(anyLong());
   }
 
   @Test
   public void testDeleteRoom_Exception() {
     // Arrange
     Long roomId = 1L;
-    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
-    doThrow(new RuntimeException("Database error")).when(roomRepository).delete(any(Room.class));
+    when(roomRepository.existsById(anyLong())).thenReturn(true);
+    doThrow(new RuntimeException("Database error")).when(roomRepository).deleteById(anyLong());
 
     // Act
     Response response = roomService.deleteRoom(roomId);
@@ -274,32 +275,33 @@ public class RoomServiceTest {
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error saving a room"));
 
-    verify(roomRepository).findById(roomId);
-    verify(roomRepository).delete(testRoom);
+    verify(bookingRepository).deleteAllByRoomIdInBulk(roomId);
+    verify(roomRepository).deleteById(roomId);
   }
 
   @Test
-  public void testUpdateRoom_Success() {
+  public void testUpdateRoom_Success() throws Exception {
     // Arrange
     Long roomId = 1L;
     String newDescription = "Updated luxury room";
     String newRoomType = "SUITE";
     BigDecimal newPrice = new BigDecimal("299.99");
+    String originalPhotoUrl = testRoom.getRoomPhotoUrl();
+    RoomUploadDTO upload = new RoomUploadDTO("upload-1", RoomUploadDTO.PENDING, roomId, null, null);
 
     when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
-    when(awsS3Service.saveImageToS3(any(MultipartFile.class))).thenReturn("https://example.com/updated-room.jpg");
+    when(roomPhotoUploads.submitPhotoChange(roomId, mockPhoto)).thenReturn(upload);
     when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
 
     // Act
     Response response = roomService.updateRoom(roomId, newDescription, newRoomType, newPrice, mockPhoto);
 
-    // Assert
-    assertEquals(200, response.getStatusCode());
-    assertEquals("successful", response.getMessage());
+    // Assert - the fields change now, the photo once it is uploaded
+    assertEquals(202, response.getStatusCode());
+    assertSame(upload, response.getRoomUpload());
     assertNotNull(response.getRoom());
 
     verify(roomRepository).findById(roomId);
-    verify(awsS3Service).saveImageToS3(mockPhoto);
 
     // Capture and verify the room saved
     ArgumentCaptor<Room> roomCaptor = ArgumentCaptor.forClass(Room.class);
@@ -308,7 +310,8 @@ public class RoomServiceTest {
     assertEquals("SUITE", savedRoom.getRoomType());
     assertEquals(new BigDecimal("299.99"), savedRoom.getRoomPrice());
     assertEquals(newDescription, savedRoom.getRoomDescription());
-    assertEquals("https://example.com/updated-room.jpg", savedRoom.getRoomPhotoUrl());
+    assertEquals(originalPhotoUrl, savedRoom.getRoomPhotoUrl());
+    verify(roomCatalogVersion).bump();
   }
 
   @Test
@@ -331,7 +334,8 @@ public class RoomServiceTest {
     assertNotNull(response.getRoom());
 
     verify(roomRepository).findById(roomId);
-    verify(awsS3Service, never()).saveImageToS3(any()); // Photo should not be updated
+    verifyNoInteractions(roomPhotoUploads); // Photo should not be updated
+    assertNull(response.getRoomUpload());
 
     // Capture and verify the room saved - only description should change
     ArgumentCaptor<Room> roomCaptor = ArgumentCaptor.forClass(Room.class);
@@ -358,36 +362,63 @@ public class RoomServiceTest {
 
     verify(roomRepository).findById(roomId);
     verify(roomRepository, never()).save(any(Room.class));
+    verify(roomCatalogVersion, never()).bump();
   }
 
   @Test
-  public void testUpdateRoom_S3Exception() {
+  public void testUpdateRoom_UploadQueueFull() throws Exception {
     // Arrange
     Long roomId = 1L;
-    // Removed findById stubbing as it's not reached in the execution flow
-    when(awsS3Service.saveImageToS3(any(MultipartFile.class)))
-            .thenThrow(new OurException("Unable to upload image to s3 bucket"));
+    String originalType = testRoom.getRoomType();
+    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
+    when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
+    when(roomPhotoUploads.submitPhotoChange(roomId, mockPhoto)).thenThrow(new RejectedExecutionException("queue full"));
 
     // Act
     Response response = roomService.updateRoom(roomId, "Updated description", "SUITE",
             new BigDecimal("299.99"), mockPhoto);
 
-    // Assert
-    assertEquals(404, response.getStatusCode());
-    assertTrue(response.getMessage().contains("Unable to upload image")
-            || response.getMessage().contains("Room Not Found")
-            || response.getMessage().contains("Error saving a room"));
+    // Assert - the photo is queued after the other fields are saved, so only the photo is refused
+    assertEquals(503, response.getStatusCode());
+    assertTrue(response.getMessage().startsWith("Room updated but the photo was not changed"));
+    assertNull(response.getRoomUpload());
+    assertNotEquals(originalType, testRoom.getRoomType());
+    verify(roomRepository).save(testRoom);
+  }
 
-    verify(awsS3Service).saveImageToS3(mockPhoto);
-    verify(roomRepository, never()).save(any(Room.class));
+  @Test
+  public void testUpdateRoom_PhotoQueuedAfterCommit() throws Exception {
+    // Arrange
+    Long roomId = 1L;
+    RoomUploadDTO upload = new RoomUploadDTO("upload-1", RoomUploadDTO.PENDING, roomId, null, null);
+    when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
+    when(roomRepository.save(any(Room.class))).thenReturn(testRoom);
+    when(roomPhotoUploads.submitPhotoChange(roomId, mockPhoto)).thenReturn(upload);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // Act
+      Response response = roomService.updateRoom(roomId, "Updated description", "SUITE",
+              new BigDecimal("299.99"), mockPhoto);
+
+      // Assert - nothing is queued while the transaction is open, then the commit queues it
+      verify(roomPhotoUploads, never()).submitPhotoChange(anyLong(), any());
+      assertEquals(200, response.getStatusCode());
+
+      TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+
+      assertEquals(202, response.getStatusCode());
+      assertSame(upload, response.getRoomUpload());
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
   }
 
   @Test
-  public void testUpdateRoom_DatabaseException() {
+  public void testUpdateRoom_DatabaseException() throws Exception {
     // Arrange
     Long roomId = 1L;
     when(roomRepository.findById(anyLong())).thenReturn(Optional.of(testRoom));
-    when(awsS3Service.saveImageToS3(any(MultipartFile.class))).thenReturn("https://example.com/updated-room.jpg");
     when(roomRepository.save(any(Room.class))).thenThrow(new RuntimeException("Database error"));
 
     // Act
@@ -399,8 +430,26 @@ public class RoomServiceTest {
     assertTrue(response.getMessage().contains("Error saving a room"));
 
     verify(roomRepository).findById(roomId);
-    verify(awsS3Service).saveImageToS3(mockPhoto);
     verify(roomRepository).save(any(Room.class));
+    verifyNoInteractions(roomPhotoUploads);
+  }
+
+  @Test
+  public void testGetRoomUpload() {
+    // Arrange
+    RoomUploadDTO upload = new RoomUploadDTO("upload-1", RoomUploadDTO.COMPLETED, 7L, "https://example.com/7.jpg", null);
+    when(roomPhotoUploads.find("upload-1")).thenReturn(Optional.of(upload));
+    when(roomPhotoUploads.find("missing")).thenReturn(Optional.empty());
+
+    // Act
+    Response found = roomService.getRoomUpload("upload-1");
+    Response missing = roomService.getRoomUpload("missing");
+
+    // Assert
+    assertEquals(200, found.getStatusCode());
+    assertSame(upload, found.getRoomUpload());
+    assertEquals(404, missing.getStatusCode());
+    assertEquals("Upload Not Found", missing.getMessage());
   }
 
   @Test
@@ -453,6 +502,27 @@ public class RoomServiceTest {
     verify(roomRepository).findById(roomId);
   }
 
+  @Test
+  public void testFindRoomDetail() {
+    // Arrange
+    BookingView booking = new BookingView(5L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), 2, 0, 2,
+            "ABC123");
+    when(roomRepository.findById(1L)).thenReturn(Optional.of(testRoom));
+    when(roomRepository.findById(999L)).thenReturn(Optional.empty());
+    when(bookingRepository.findBookingViewsByRoomId(1L)).thenReturn(List.of(booking));
+
+    // Act
+    Optional<RoomDetail> found = roomService.findRoomDetail(1L);
+    Optional<RoomDetail> missing = roomService.findRoomDetail(999L);
+
+    // Assert - the bookings come from their own projection, not the room's collection
+    assertTrue(found.isPresent());
+    assertEquals("DELUXE", found.get().room().roomType());
+    assertEquals(List.of(booking), found.get().bookings());
+    assertTrue(missing.isEmpty());
+    verify(bookingRepository, never()).findBookingViewsByRoomId(999L);
+  }
+
   @Test
   public void testGetAvailableRoomsByDataAndType_Success() {
     // Arrange
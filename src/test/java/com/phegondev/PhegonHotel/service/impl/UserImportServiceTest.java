@@ -0,0 +1,216 @@
+package com.phegondev.PhegonHotel.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.UserImportResultDTO;
+import com.phegondev.PhegonHotel.entity.User;
+import com.phegondev.PhegonHotel.repo.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for UserImportService
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+  @Mock
+  private UserRepository userRepository;
+
+  @Mock
+  private PasswordEncoder passwordEncoder;
+
+  @Mock
+  private EntityManager entityManager;
+
+  @InjectMocks
+  private UserImportService userImportService;
+
+  @BeforeEach
+  public void setup() {
+    ReflectionTestUtils.setField(userImportService, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(userImportService, "transactionTemplate", TransactionOperations.withoutTransaction());
+    ReflectionTestUtils.setField(userImportService, "passwordHashingExecutor", (Executor) Runnable::run);
+    ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+    lenient().when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+  }
+
+  @Test
+  public void testImportCsv_CreatesSkipsAndFailsPerRow() {
+    // Arrange
+    String csv = "email,name,phoneNumber,password\n"
+            + "new@example.com,New User,111,secret1\n"
+            + "existing@example.com,Existing,222,secret2\n"
+            + "new@example.com,Duplicate,333,secret3\n"
+            + ",No Email,444,secret4\n";
+    when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> {
+      Collection<String> emails = invocation.getArgument(0);
+      return emails.contains("existing@example.com") ? List.of("existing@example.com") : List.of();
+    });
+
+    // Act
+    Response response = userImportService.importUsers(stream(csv), "text/csv");
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals("Imported 1, skipped 2, failed 1", response.getMessage());
+    List<UserImportResultDTO> results = response.getImportResults();
+    assertEquals(4, results.size());
+    assertEquals(UserImportResultDTO.CREATED, results.get(0).getStatus());
+    assertEquals(UserImportResultDTO.SKIPPED, results.get(1).getStatus());
+    assertEquals(UserImportResultDTO.SKIPPED, results.get(2).getStatus());
+    assertEquals(UserImportResultDTO.FAILED, results.get(3).getStatus());
+    assertEquals(4, results.get(3).getRow());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<User>> batchCaptor = ArgumentCaptor.forClass(List.class);
+    verify(userRepository, times(1)).saveAllAndFlush(batchCaptor.capture());
+    User inserted = batchCaptor.getValue().get(0);
+    assertEquals("new@example.com", inserted.getEmail());
+    assertEquals("hashed-secret1", inserted.getPassword());
+    assertEquals("USER", inserted.getRole());
+    verify(entityManager).clear();
+  }
+
+  @Test
+  public void testImportJson_InsertsInChunks() {
+    // Arrange
+    String json = "[" +
+            "{\"email\":\"a@example.com\",\"name\":\"A\",\"phoneNumber\":\"1\",\"password\":\"p\"}," +
+            "{\"email\":\"b@example.com\",\"name\":\"B\",\"phoneNumber\":\"2\",\"password\":\"p\"}," +
+            "{\"email\":\"c@example.com\",\"name\":\"C\",\"phoneNumber\":\"3\",\"password\":\"p\",\"role\":\"ADMIN\"}" +
+            "]";
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+    // Act
+    Response response = userImportService.importUsers(stream(json), "application/json");
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals(3, response.getImportResults().size());
+    assertTrue(response.getImportResults().stream().allMatch(r -> UserImportResultDTO.CREATED.equals(r.getStatus())));
+    // chunk size is 2, so one IN query and one batch per chunk
+    verify(userRepository, times(2)).findExistingEmails(anyCollection());
+    verify(userRepository, times(2)).saveAllAndFlush(anyList());
+    verify(entityManager, times(2)).clear();
+  }
+
+  @Test
+  public void testImportCsv_EmailsCompareCaseInsensitively() {
+    // Arrange
+    String csv = "email,name,phoneNumber,password\n"
+            + " New@Example.com ,New User,111,secret1\n"
+            + "new@example.COM,Duplicate,222,secret2\n"
+            + "EXISTING@example.com,Existing,333,secret3\n";
+    when(userRepository.findExistingEmails(anyCollection())).thenAnswer(invocation -> {
+      Collection<String> emails = invocation.getArgument(0);
+      return emails.contains("existing@example.com") ? List.of("Existing@Example.com") : List.of();
+    });
+
+    // Act
+    Response response = userImportService.importUsers(stream(csv), "text/csv");
+
+    // Assert
+    List<UserImportResultDTO> results = response.getImportResults();
+    assertEquals(UserImportResultDTO.CREATED, results.get(0).getStatus());
+    assertEquals("new@example.com", results.get(0).getEmail());
+    assertEquals(UserImportResultDTO.SKIPPED, results.get(1).getStatus());
+    assertEquals("Duplicate email in import", results.get(1).getMessage());
+    assertEquals(UserImportResultDTO.SKIPPED, results.get(2).getStatus());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<User>> batchCaptor = ArgumentCaptor.forClass(List.class);
+    verify(userRepository, times(1)).saveAllAndFlush(batchCaptor.capture());
+    assertEquals(1, batchCaptor.getValue().size());
+    assertEquals("new@example.com", batchCaptor.getValue().get(0).getEmail());
+  }
+
+  @Test
+  public void testImportCsv_UnknownRoleFailsTheRow() {
+    // Arrange
+    String csv = "email,name,phoneNumber,password,role\n"
+            + "admin@example.com,Admin,111,secret1, admin \n"
+            + "root@example.com,Root,222,secret2,SUPERUSER\n";
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+
+    // Act
+    Response response = userImportService.importUsers(stream(csv), "text/csv");
+
+    // Assert
+    assertEquals("Imported 1, skipped 0, failed 1", response.getMessage());
+    UserImportResultDTO rejected = response.getImportResults().get(1);
+    assertEquals(UserImportResultDTO.FAILED, rejected.getStatus());
+    assertEquals("Invalid role SUPERUSER, expected USER or ADMIN", rejected.getMessage());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<User>> batchCaptor = ArgumentCaptor.forClass(List.class);
+    verify(userRepository).saveAllAndFlush(batchCaptor.capture());
+    assertEquals(1, batchCaptor.getValue().size());
+    assertEquals("ADMIN", batchCaptor.getValue().get(0).getRole());
+  }
+
+  @Test
+  public void testImport_BatchFailureMarksRowsFailed() {
+    // Arrange
+    String csv = "email,name,phoneNumber,password\nraced@example.com,Raced,1,p\n";
+    when(userRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+    when(userRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+    // Act
+    Response response = userImportService.importUsers(stream(csv), "text/csv");
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals(UserImportResultDTO.FAILED, response.getImportResults().get(0).getStatus());
+  }
+
+  @Test
+  public void testImportCsv_MissingHeaderColumns() {
+    // Act
+    Response response = userImportService.importUsers(stream("email,name\nx@example.com,X\n"), "text/csv");
+
+    // Assert
+    assertEquals(400, response.getStatusCode());
+    verify(userRepository, never()).saveAllAndFlush(anyList());
+  }
+
+  @Test
+  public void testImportJson_InvalidPayload() {
+    // Act
+    Response response = userImportService.importUsers(stream("[{\"email\":"), "application/json");
+
+    // Assert
+    assertEquals(400, response.getStatusCode());
+    assertTrue(response.getMessage().startsWith("Invalid JSON import payload"));
+  }
+
+  @Test
+  public void testSplitCsvLine_HandlesQuotedCommas() {
+    assertEquals(List.of("a", "b, c", "say \"hi\""), UserImportService.splitCsvLine("a,\"b, c\",\"say \"\"hi\"\"\""));
+  }
+
+  private InputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
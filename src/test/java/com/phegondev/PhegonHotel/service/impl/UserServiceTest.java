@@ -2,19 +2,30 @@ package com.phegondev.PhegonHotel.service.impl;
 
 import com.phegondev.PhegonHotel.dto.LoginRequest;
 import com.phegondev.PhegonHotel.dto.Response;
+import com.phegondev.PhegonHotel.dto.UserBookingHistoryRow;
+import com.phegondev.PhegonHotel.dto.UserDTO;
 import com.phegondev.PhegonHotel.entity.Booking;
 import com.phegondev.PhegonHotel.entity.Room;
 import com.phegondev.PhegonHotel.entity.User;
 import com.phegondev.PhegonHotel.exception.OurException;
+import com.phegondev.PhegonHotel.repo.BookingRepository;
 import com.phegondev.PhegonHotel.repo.UserRepository;
+import com.phegondev.PhegonHotel.service.RefreshTokenService;
+import com.phegondev.PhegonHotel.service.RoomCatalogVersion;
+import com.phegondev.PhegonHotel.service.TokenRevocationService;
 import com.phegondev.PhegonHotel.utils.JWTUtils;
+import com.phegondev.PhegonHotel.utils.Utils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -25,6 +36,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -41,6 +53,9 @@ public class UserServiceTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private BookingRepository bookingRepository;
+
   @Mock
   private PasswordEncoder passwordEncoder;
 
@@ -50,6 +65,15 @@ public class UserServiceTest {
   @Mock
   private AuthenticationManager authenticationManager;
 
+  @Mock
+  private TokenRevocationService tokenRevocationService;
+
+  @Mock
+  private RoomCatalogVersion roomCatalogVersion;
+
+  @Mock
+  private RefreshTokenService refreshTokenService;
+
   @InjectMocks
   private UserService userService;
 
@@ -190,6 +214,8 @@ public class UserServiceTest {
             .thenReturn(authentication);
     when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
     when(jwtUtils.generateToken(any(User.class))).thenReturn("jwt-token-here");
+    when(jwtUtils.getAccessTokenExpirationTime()).thenReturn(15 * 60 * 1000L);
+    when(refreshTokenService.issue(testUser)).thenReturn("refresh-token-here");
 
     // Act
     Response response = userService.login(loginRequest);
@@ -199,13 +225,98 @@ public class UserServiceTest {
     assertEquals("successful", response.getMessage());
     assertEquals("jwt-token-here", response.getToken());
     assertEquals("USER", response.getRole());
-    assertEquals("7 Days", response.getExpirationTime());
+    assertEquals("refresh-token-here", response.getRefreshToken());
+    assertEquals("15 Minutes", response.getExpirationTime());
 
     verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
     verify(userRepository).findByEmail(loginRequest.getEmail());
     verify(jwtUtils).generateToken(testUser);
   }
 
+  @Test
+  public void testLogout_Success() {
+    // Arrange
+    Date expiration = new Date(System.currentTimeMillis() + 60_000);
+    when(jwtUtils.extractExpiration("jwt-token-here")).thenReturn(expiration);
+
+    // Act
+    Response response = userService.logout("Bearer jwt-token-here", null);
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals("successful", response.getMessage());
+    verify(tokenRevocationService).revoke("jwt-token-here", expiration);
+  }
+
+  @Test
+  public void testLogout_WithRefreshToken_RevokesRefreshFamily() {
+    // Arrange
+    when(jwtUtils.extractExpiration("jwt-token-here")).thenReturn(new Date(System.currentTimeMillis() + 60_000));
+
+    // Act
+    Response response = userService.logout("Bearer jwt-token-here", "refresh-token-here");
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    verify(refreshTokenService).revoke("refresh-token-here");
+  }
+
+  @Test
+  public void testRefreshToken_Success() {
+    // Arrange
+    when(refreshTokenService.rotate("old-refresh")).thenReturn(new RefreshTokenService.Rotation(testUser, "new-refresh"));
+    when(jwtUtils.generateToken(testUser)).thenReturn("new-access");
+    when(jwtUtils.getAccessTokenExpirationTime()).thenReturn(15 * 60 * 1000L);
+
+    // Act
+    Response response = userService.refreshToken("old-refresh");
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals("new-access", response.getToken());
+    assertEquals("new-refresh", response.getRefreshToken());
+    assertEquals("USER", response.getRole());
+  }
+
+  @Test
+  public void testRefreshToken_ReuseDetected() {
+    // Arrange
+    when(refreshTokenService.rotate("used-refresh")).thenThrow(new OurException("Refresh token reuse detected"));
+
+    // Act
+    Response response = userService.refreshToken("used-refresh");
+
+    // Assert
+    assertEquals(401, response.getStatusCode());
+    assertEquals("Refresh token reuse detected", response.getMessage());
+    verify(jwtUtils, never()).generateToken(any(User.class));
+  }
+
+  @Test
+  public void testLogout_MissingHeader() {
+    // Act
+    Response response = userService.logout(null, null);
+
+    // Assert
+    assertEquals(400, response.getStatusCode());
+    assertEquals("Missing Bearer token", response.getMessage());
+    verify(tokenRevocationService, never()).revoke(anyString(), any(Date.class));
+  }
+
+  @Test
+  public void testLogout_InvalidToken() {
+    // Arrange
+    when(jwtUtils.extractExpiration("garbage")).thenThrow(new io.jsonwebtoken.MalformedJwtException("bad"));
+
+    // Act
+    Response response = userService.logout("Bearer garbage", null);
+
+    // Assert
+    assertEquals(400, response.getStatusCode());
+    assertEquals("Invalid token", response.getMessage());
+    verify(tokenRevocationService, never()).revoke(anyString(), any(Date.class));
+  }
+
   @Test
   public void testLogin_UserNotFound() {
     // Arrange
@@ -286,10 +397,10 @@ public class UserServiceTest {
   @Test
   public void testGetAllUsers_Success() {
     // Arrange
-    List<User> userList = new ArrayList<>();
-    userList.add(testUser);
+    List<UserDTO> userList = new ArrayList<>();
+    userList.add(Utils.mapUserEntityToUserDTO(testUser));
 
-    when(userRepository.findAll()).thenReturn(userList);
+    when(userRepository.findAllUserDTOs()).thenReturn(userList);
 
     // Act
     Response response = userService.getAllUsers();
@@ -300,13 +411,13 @@ public class UserServiceTest {
     assertEquals(1, response.getUserList().size());
     assertEquals(testUser.getEmail(), response.getUserList().get(0).getEmail());
 
-    verify(userRepository).findAll();
+    verify(userRepository).findAllUserDTOs();
   }
 
   @Test
   public void testGetAllUsers_EmptyList() {
     // Arrange
-    when(userRepository.findAll()).thenReturn(Collections.emptyList());
+    when(userRepository.findAllUserDTOs()).thenReturn(Collections.emptyList());
 
     // Act
     Response response = userService.getAllUsers();
@@ -316,13 +427,13 @@ public class UserServiceTest {
     assertEquals("successful", response.getMessage());
     assertTrue(response.getUserList().isEmpty());
 
-    verify(userRepository).findAll();
+    verify(userRepository).findAllUserDTOs();
   }
 
   @Test
   public void testGetAllUsers_Exception() {
     // Arrange
-    when(userRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+    when(userRepository.findAllUserDTOs()).thenThrow(new RuntimeException("Database error"));
 
     // Act
     Response response = userService.getAllUsers();
@@ -331,7 +442,7 @@ public class UserServiceTest {
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error getting all users"));
 
-    verify(userRepository).findAll();
+    verify(userRepository).findAllUserDTOs();
   }
 
   @Test
@@ -383,8 +494,8 @@ public class UserServiceTest {
   @Test
   public void testDeleteUser_Success() {
     // Arrange
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
-    doNothing().when(userRepository).delete(any(User.class));
+    when(userRepository.existsById(anyLong())).thenReturn(true);
+    when(bookingRepository.deleteAllByUserIdInBulk(anyLong())).thenReturn(2);
 
     // Act
     Response response = userService.deleteUser("1");
@@ -393,14 +504,17 @@ public class UserServiceTest {
     assertEquals(200, response.getStatusCode());
     assertEquals("successful", response.getMessage());
 
-    verify(userRepository).findById(1L);
-    verify(userRepository).delete(testUser);
+    InOrder inOrder = inOrder(bookingRepository, userRepository);
+    inOrder.verify(bookingRepository).deleteAllByUserIdInBulk(1L);
+    inOrder.verify(userRepository).deleteById(1L);
+    verify(roomCatalogVersion).bump();
+    verify(userRepository, never()).delete(any(User.class));
   }
 
   @Test
   public void testDeleteUser_UserNotFound() {
     // Arrange
-    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(userRepository.existsById(anyLong())).thenReturn(false);
 
     // Act
     Response response = userService.deleteUser("1");
@@ -409,8 +523,9 @@ public class UserServiceTest {
     assertEquals(404, response.getStatusCode());
     assertTrue(response.getMessage().contains("User Not Found"));
 
-    verify(userRepository).findById(1L);
-    verify(userRepository, never()).delete(any(User.class));
+    verify(userRepository).existsById(1L);
+    verify(bookingRepository, never()).deleteAllByUserIdInBulk(anyLong());
+    verify(userRepository, never()).deleteById(anyLong());
   }
 
   @Test
@@ -422,15 +537,15 @@ public class UserServiceTest {
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error getting all users"));
 
-    verify(userRepository, never()).findById(anyLong());
-    verify(userRepository, never()).delete(any(User.class));
+    verify(userRepository, never()).existsById(anyLong());
+    verify(userRepository, never()).deleteById(anyLong());
   }
 
   @Test
   public void testDeleteUser_DeletionException() {
     // Arrange
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
-    doThrow(new RuntimeException("Deletion error")).when(userRepository).delete(any(User.class));
+    when(userRepository.existsById(anyLong())).thenReturn(true);
+    doThrow(new RuntimeException("Deletion error")).when(userRepository).deleteById(anyLong());
 
     // Act
     Response response = userService.deleteUser("1");
@@ -439,8 +554,8 @@ public class UserServiceTest {
     assertEquals(500, response.getStatusCode());
     assertTrue(response.getMessage().contains("Error getting all users"));
 
-    verify(userRepository).findById(1L);
-    verify(userRepository).delete(testUser);
+    verify(bookingRepository).deleteAllByUserIdInBulk(1L);
+    verify(userRepository).deleteById(1L);
   }
 
   @Test
@@ -492,23 +607,12 @@ public class UserServiceTest {
 
   @Test
   public void testGetUserBookingHistory_Success() {
-    // Arrange
-    // Add some bookings to the test user
-    List<Booking> bookings = new ArrayList<>();
-    Booking booking = new Booking();
-    booking.setId(1L);
-    booking.setCheckInDate(LocalDate.now().plusDays(1));
-    booking.setCheckOutDate(LocalDate.now().plusDays(3));
-    booking.setUser(testUser);
-    Room room = new Room();
-    room.setId(1L);
-    room.setRoomType("DELUXE");
-    room.setRoomPrice(BigDecimal.valueOf(199.99));
-    booking.setRoom(room);
-    bookings.add(booking);
-    testUser.setBookings(bookings);
-
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+    // Arrange - one joined row per booking
+    LocalDate checkIn = LocalDate.now().plusDays(1);
+    List<UserBookingHistoryRow> rows = List.of(
+            historyRow(1L, checkIn, 1L, "DELUXE"),
+            historyRow(2L, checkIn.plusDays(10), 2L, "SUITE"));
+    when(userRepository.findBookingHistory(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(rows));
 
     // Act
     Response response = userService.getUserBookingHistory("1");
@@ -517,17 +621,19 @@ public class UserServiceTest {
     assertEquals(200, response.getStatusCode());
     assertEquals("successful", response.getMessage());
     assertNotNull(response.getUser());
-    assertNotNull(response.getUser().getBookings());
-    assertEquals(1, response.getUser().getBookings().size());
+    assertEquals("test@example.com", response.getUser().getEmail());
+    assertEquals(2, response.getUser().getBookings().size());
+    assertEquals("SUITE", response.getUser().getBookings().get(1).getRoom().getRoomType());
 
-    verify(userRepository).findById(1L);
+    verify(userRepository).findBookingHistory(1L, Pageable.unpaged());
+    verify(userRepository, never()).findById(anyLong());
   }
 
   @Test
   public void testGetUserBookingHistory_NoBookings() {
-    // Arrange - User with no bookings
-    testUser.setBookings(Collections.emptyList());
-    when(userRepository.findById(anyLong())).thenReturn(Optional.of(testUser));
+    // Arrange - a user without bookings still yields one row from the left join
+    List<UserBookingHistoryRow> rows = List.of(historyRow(null, null, null, null));
+    when(userRepository.findBookingHistory(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(rows));
 
     // Act
     Response response = userService.getUserBookingHistory("1");
@@ -537,14 +643,12 @@ public class UserServiceTest {
     assertEquals("successful", response.getMessage());
     assertNotNull(response.getUser());
     assertTrue(response.getUser().getBookings().isEmpty());
-
-    verify(userRepository).findById(1L);
   }
 
   @Test
   public void testGetUserBookingHistory_UserNotFound() {
     // Arrange
-    when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+    when(userRepository.findBookingHistory(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
 
     // Act
     Response response = userService.getUserBookingHistory("1");
@@ -552,8 +656,49 @@ public class UserServiceTest {
     // Assert
     assertEquals(404, response.getStatusCode());
     assertTrue(response.getMessage().contains("User Not Found"));
+  }
 
-    verify(userRepository).findById(1L);
+  @Test
+  public void testGetUserBookingHistory_Paged() {
+    // Arrange
+    List<UserBookingHistoryRow> rows = List.of(historyRow(3L, LocalDate.now(), 1L, "DELUXE"));
+    when(userRepository.findBookingHistory(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(rows));
+
+    // Act
+    Response response = userService.getUserBookingHistory("1", 2, 500);
+
+    // Assert - page size is capped
+    assertEquals(200, response.getStatusCode());
+    assertEquals(1, response.getUser().getBookings().size());
+    verify(userRepository).findBookingHistory(1L, PageRequest.of(2, 100));
+  }
+
+  @Test
+  public void testGetUserBookingHistory_PastLastPage() {
+    // Arrange
+    when(userRepository.findBookingHistory(eq(1L), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+    // Act
+    Response response = userService.getUserBookingHistory("1", 5, 10);
+
+    // Assert
+    assertEquals(200, response.getStatusCode());
+    assertEquals("test@example.com", response.getUser().getEmail());
+    assertTrue(response.getUser().getBookings().isEmpty());
+  }
+
+  @Test
+  public void testGetUserBookingHistory_InvalidPaging() {
+    // Act
+    Response negativePage = userService.getUserBookingHistory("1", -1, 10);
+    Response zeroSize = userService.getUserBookingHistory("1", 0, 0);
+
+    // Assert
+    assertEquals(400, negativePage.getStatusCode());
+    assertEquals("page must not be negative and size must be at least 1", negativePage.getMessage());
+    assertEquals(400, zeroSize.getStatusCode());
+    verifyNoInteractions(userRepository);
   }
 
   @Test
@@ -567,4 +712,12 @@ public class UserServiceTest {
 
     verify(userRepository, never()).findById(anyLong());
   }
-}
\ No newline at end of file
+
+  private UserBookingHistoryRow historyRow(Long bookingId, LocalDate checkIn, Long roomId, String roomType) {
+    return new UserBookingHistoryRow(1L, "Test User", "test@example.com", "1234567890", "USER",
+            bookingId, checkIn, checkIn == null ? null : checkIn.plusDays(2),
+            bookingId == null ? null : 2, bookingId == null ? null : 0, bookingId == null ? null : 2,
+            bookingId == null ? null : "CODE" + bookingId,
+            roomId, roomType, roomId == null ? null : BigDecimal.valueOf(199.99), null, null);
+  }
+}
@@ -0,0 +1,49 @@
+package com.phegondev.PhegonHotel.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+  @Test
+  public void testInsertedValuesAreAlwaysFound() {
+    // Arrange
+    BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      bloomFilter.put("token-" + i);
+    }
+
+    // Assert - a Bloom filter never reports a false negative
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(bloomFilter.mightContain("token-" + i));
+    }
+  }
+
+  @Test
+  public void testFalsePositiveRateStaysNearConfiguredProbability() {
+    // Arrange
+    BloomFilter bloomFilter = new BloomFilter(1000, 0.01);
+    for (int i = 0; i < 1000; i++) {
+      bloomFilter.put("token-" + i);
+    }
+
+    // Act
+    int falsePositives = 0;
+    for (int i = 0; i < 10_000; i++) {
+      if (bloomFilter.mightContain("other-" + i)) {
+        falsePositives++;
+      }
+    }
+
+    // Assert - allow generous headroom over the configured 1%
+    assertTrue(falsePositives < 300, "Too many false positives: " + falsePositives);
+  }
+
+  @Test
+  public void testEmptyFilterContainsNothing() {
+    BloomFilter bloomFilter = new BloomFilter(100, 0.01);
+
+    assertFalse(bloomFilter.mightContain("anything"));
+  }
+}
@@ -8,13 +8,15 @@ import static org.junit.jupiter.api.Assertions.*;
 
 public class JWTUtilsTest {
 
+  private static final String TEST_SECRET_KEY = "843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3";
+  private static final String NEW_SECRET_KEY = "NEWKEY7893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3";
+
   private JWTUtils jwtUtils;
   private User testUser;
 
   @BeforeEach
   public void setup() {
     // Create a real instance of JWTUtils with our test secret key
-    String TEST_SECRET_KEY = "843567893696976453275974432697R634976R738467TR678T34865R6834R8763T478378637664538745673865783678548735687R3";
     jwtUtils = new JWTUtils(TEST_SECRET_KEY);
 
     // Create a test user
@@ -52,6 +54,26 @@ public class JWTUtilsTest {
     assertEquals("test@example.com", username);
   }
 
+  @Test
+  public void testGenerateToken_EmbedsRoleClaim() {
+    // Act
+    String token = jwtUtils.generateToken(testUser);
+
+    // Assert
+    assertEquals("USER", jwtUtils.extractAllClaims(token).get(JWTUtils.ROLE_CLAIM, String.class));
+  }
+
+  @Test
+  public void testGenerateToken_UsesShortAccessLifetime() {
+    // Act
+    String token = jwtUtils.generateToken(testUser);
+    long lifetime = jwtUtils.extractExpiration(token).getTime() - System.currentTimeMillis();
+
+    // Assert
+    assertTrue(lifetime <= jwtUtils.getAccessTokenExpirationTime());
+    assertTrue(lifetime > jwtUtils.getAccessTokenExpirationTime() - 5_000);
+  }
+
   @Test
   public void testIsValidToken_ValidToken() {
     // Arrange
@@ -143,6 +165,40 @@ public class JWTUtilsTest {
     });
   }
 
+  @Test
+  public void testGenerateToken_WritesKeyIdHeader() {
+    // Arrange
+    JWTUtils rotatedUtils = new JWTUtils(NEW_SECRET_KEY, "2024-06", "", 60_000);
+
+    // Act
+    String token = rotatedUtils.generateToken(testUser);
+    String header = new String(java.util.Base64.getUrlDecoder().decode(token.split("\\.")[0]));
+
+    // Assert
+    assertTrue(header.contains("\"kid\":\"2024-06\""));
+  }
+
+  @Test
+  public void testRotatedKey_StillVerifiesTokensSignedWithPreviousKey() {
+    // Arrange - tokens signed before the rotation used the "default" kid
+    String oldToken = jwtUtils.generateToken(testUser);
+    JWTUtils rotatedUtils = new JWTUtils(NEW_SECRET_KEY, "2024-06", "default:" + TEST_SECRET_KEY, 60_000);
+
+    // Act & Assert
+    assertEquals("test@example.com", rotatedUtils.extractUsername(oldToken));
+    assertEquals("test@example.com", rotatedUtils.extractUsername(rotatedUtils.generateToken(testUser)));
+  }
+
+  @Test
+  public void testRetiredKey_IsRejected() {
+    // Arrange
+    String oldToken = jwtUtils.generateToken(testUser);
+    JWTUtils rotatedUtils = new JWTUtils(NEW_SECRET_KEY, "2024-06", "", 60_000);
+
+    // Act & Assert
+    assertThrows(io.jsonwebtoken.JwtException.class, () -> rotatedUtils.extractUsername(oldToken));
+  }
+
   /**
    * Note: We're skipping the expiration test as it would require a different approach
    * based on implementation details. In a real-world scenario, you would need either:
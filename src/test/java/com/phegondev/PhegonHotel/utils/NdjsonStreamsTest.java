@@ -0,0 +1,84 @@
+package com.phegondev.PhegonHotel.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonStreamsTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  @Test
+  public void testWritesOneJsonObjectPerLine() throws Exception {
+    // Arrange
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Consumer<Consumer<Map<String, Object>>> source = row -> {
+      row.accept(Map.of("id", 1));
+      row.accept(Map.of("id", 2));
+    };
+
+    // Act
+    NdjsonStreams.of(objectMapper, source).writeTo(out);
+
+    // Assert
+    assertEquals("{\"id\":1}\n{\"id\":2}\n", out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testFlushesInBatches() throws Exception {
+    // Arrange
+    CountingOutputStream out = new CountingOutputStream();
+    int rows = NdjsonStreams.FLUSH_EVERY * 2 + 1;
+    Consumer<Consumer<Integer>> source = row -> {
+      for (int i = 0; i < rows; i++) {
+        row.accept(i);
+      }
+    };
+
+    // Act
+    NdjsonStreams.of(objectMapper, source).writeTo(out);
+
+    // Assert - two full batches plus the final flush
+    assertEquals(3, out.flushes);
+  }
+
+  @Test
+  public void testWriteFailureStopsTheSource() {
+    // Arrange
+    OutputStream broken = new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    };
+    int[] produced = {0};
+    Consumer<Consumer<Integer>> source = row -> {
+      for (int i = 0; i < 10; i++) {
+        produced[0]++;
+        row.accept(i);
+      }
+    };
+
+    // Act & Assert
+    IOException e = assertThrows(IOException.class, () -> NdjsonStreams.of(objectMapper, source).writeTo(broken));
+    assertEquals("Broken pipe", e.getMessage());
+    assertEquals(1, produced[0]);
+  }
+
+  private static class CountingOutputStream extends ByteArrayOutputStream {
+    private int flushes;
+
+    @Override
+    public void flush() {
+      flushes++;
+    }
+  }
+}